@@ -0,0 +1,65 @@
+package application;
+
+public abstract class Benchmark {
+	// The name of the benchmark
+	public final String name;
+	
+	// The parameters of the benchmark, for example "dimension=100 length=10"
+	public final String parameters;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param name 			The name of the benchmark.
+	 * @param parameters 	The parameters of the benchmark.
+	 */
+	Benchmark(String name, String parameters) {
+		this.name = name;
+		this.parameters = parameters;
+	}
+	
+	/**
+	 * Prepares the state the benchmark runs on.
+	 * 
+	 * Called once before warming up, and not measured.
+	 */
+	public void setup() {
+	}
+	
+	/**
+	 * Returns true if an operation must not allocate once warmed up.
+	 * 
+	 * The runner reports the benchmark as failed if it does.
+	 * 
+	 * @return boolean
+	 */
+	public boolean allocationFree() {
+		return false;
+	}
+	
+	/**
+	 * Returns the total time spent in work that shouldn't be measured,
+	 * like starting over on a new board.
+	 * 
+	 * @return long 	The time in nanoseconds.
+	 */
+	public long excludedTime() {
+		return 0;
+	}
+	
+	/**
+	 * Returns the total bytes allocated by work that shouldn't be measured.
+	 * 
+	 * @return long
+	 */
+	public long excludedBytes() {
+		return 0;
+	}
+	
+	/**
+	 * Runs one operation of the benchmark.
+	 * 
+	 * @return int 	Any value depending on the work done, so it can't be optimized away.
+	 */
+	public abstract int run();
+}
@@ -0,0 +1,152 @@
+package application;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class BenchmarkRunner {
+	// How long to warm up each benchmark (in nanoseconds)
+	private final long warmupTime;
+	
+	// How long to measure each benchmark (in nanoseconds)
+	private final long measurementTime;
+	
+	// The number of measurement iterations, used to estimate the error
+	private final int iterations;
+	
+	// The results as lines of comma separated values
+	private final List<String> results = new ArrayList<String>();
+	
+	// The benchmarks that allocated although they shouldn't have
+	private final List<String> failures = new ArrayList<String>();
+	
+	// Counts the bytes allocated by the benchmark thread
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	// Collects the values returned by the benchmarks, so their work isn't optimized away
+	private int sink;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param warmupMillis 			How long to warm up each benchmark.
+	 * @param measurementMillis 	How long to measure each benchmark.
+	 * @param iterations 			The number of measurement iterations.
+	 */
+	BenchmarkRunner(long warmupMillis, long measurementMillis, int iterations) {
+		this.warmupTime = warmupMillis * 1000000;
+		this.measurementTime = measurementMillis * 1000000;
+		this.iterations = iterations;
+	}
+	
+	/**
+	 * Warms up and measures a benchmark.
+	 * 
+	 * Operations run in batches that take about a millisecond,
+	 * so reading the clock doesn't add to the time of fast operations.
+	 * 
+	 * @param benchmark 	The benchmark to run.
+	 */
+	public void run(Benchmark benchmark) {
+		benchmark.setup();
+		
+		// warm up, doubling the batch size until a batch takes a millisecond
+		int batch = 1;
+		long warmupEnd = System.nanoTime() + this.warmupTime;
+		while (System.nanoTime() < warmupEnd) {
+			long start = System.nanoTime();
+			runBatch(benchmark, batch);
+			if (System.nanoTime() - start < 1000000 && batch < (1 << 24)) batch *= 2;
+		}
+		
+		// measure the time and allocation per operation of each iteration
+		long thread = Thread.currentThread().getId();
+		double times[] = new double[this.iterations];
+		long operations = 0;
+		long bytes = 0;
+		for (int i = 0; i < this.iterations; i++) {
+			long iterationOperations = 0;
+			long excludedTime = benchmark.excludedTime();
+			long excludedBytes = benchmark.excludedBytes();
+			long allocated = this.threads.getThreadAllocatedBytes(thread);
+			long start = System.nanoTime();
+			long end = start + this.measurementTime / this.iterations;
+			long now;
+			do {
+				runBatch(benchmark, batch);
+				iterationOperations += batch;
+				now = System.nanoTime();
+			} while (now < end);
+			bytes += this.threads.getThreadAllocatedBytes(thread) - allocated;
+			bytes -= benchmark.excludedBytes() - excludedBytes;
+			operations += iterationOperations;
+			times[i] = (double) (now - start - (benchmark.excludedTime() - excludedTime)) / iterationOperations;
+		}
+		
+		// the mean time per operation, and the standard deviation of the iterations
+		double mean = 0;
+		for (double time : times) mean += time / times.length;
+		double variance = 0;
+		for (double time : times) variance += (time - mean) * (time - mean) / times.length;
+		double error = Math.sqrt(variance);
+		double bytesPerOperation = (double) bytes / operations;
+		
+		this.results.add(String.format(Locale.ROOT, "%s,%s,%.3f,%.3f,%.3f,%d",
+				benchmark.name, benchmark.parameters, mean, error, bytesPerOperation, operations));
+		System.out.println(String.format(Locale.ROOT, "%-24s %-40s %14.1f ns/op +- %-10.1f %10.1f B/op",
+				benchmark.name, benchmark.parameters, mean, error, bytesPerOperation));
+		
+		// allow for the bytes allocated while reading the clock and counters
+		if (benchmark.allocationFree() && bytesPerOperation >= 0.5) {
+			this.failures.add(benchmark.name + " " + benchmark.parameters + " allocated " + bytesPerOperation + " B/op");
+		}
+	}
+	
+	/**
+	 * Returns the benchmarks that allocated although they shouldn't have.
+	 * 
+	 * @return List<String>
+	 */
+	public List<String> failures() {
+		return this.failures;
+	}
+	
+	/**
+	 * Runs a batch of operations.
+	 * 
+	 * @param benchmark 	The benchmark to run.
+	 * @param batch 		The number of operations to run.
+	 */
+	private void runBatch(Benchmark benchmark, int batch) {
+		int value = 0;
+		for (int i = 0; i < batch; i++) {
+			value += benchmark.run();
+		}
+		this.sink += value;
+	}
+	
+	/**
+	 * Writes the results as comma separated values, one line per benchmark.
+	 * 
+	 * @param file 			The file to write to.
+	 * @throws IOException
+	 */
+	public void write(String file) throws IOException {
+		PrintWriter writer = new PrintWriter(file, "UTF-8");
+		try {
+			writer.println("benchmark,parameters,ns_per_op,error_ns,bytes_per_op,operations");
+			for (String result : this.results) {
+				writer.println(result);
+			}
+		} finally {
+			writer.close();
+		}
+		
+		// print the sink, so the work of the benchmarks is always used
+		if (this.sink == 42) System.out.println();
+	}
+}
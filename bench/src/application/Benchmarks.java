@@ -0,0 +1,292 @@
+package application;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import application.Board.UpdateMode;
+
+public class Benchmarks {
+	// The number of rows and columns inside the border of the boards to benchmark
+	private static final int SIZES[] = { 10, 100, 1000 };
+	
+	// The number of rows and columns inside the border of the boards to benchmark the movement kernel on
+	private static final int KERNEL_SIZES[] = { 10, 100, 1000, 2000 };
+	
+	// The lengths of the snakes to benchmark
+	private static final int LENGTHS[] = { 1, 100, 10000 };
+	
+	// The seed for apple locations
+	private static final long SEED = 42;
+	
+	// The number of rows and columns inside the border of the arenas to benchmark
+	private static final int ARENA_SIZES[] = { 200, 1000 };
+	
+	// The number of snakes, and apples, on each arena
+	private static final int ARENA_SNAKES[] = { 100, 1000 };
+	
+	// The numbers of threads to tick arenas on, 0 for the sequential tick
+	private static final int THREADS[] = { 0, 1, 2, 4, 8 };
+	
+	/**
+	 * Runs every benchmark and writes the results.
+	 * 
+	 * Usage: Benchmarks [results file] [--no-render]
+	 * 
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		String file = "results.csv";
+		boolean render = true;
+		for (String arg : args) {
+			if (arg.equals("--no-render")) {
+				render = false;
+			} else {
+				file = arg;
+			}
+		}
+		
+		BenchmarkRunner runner = new BenchmarkRunner(1000, 3000, 5);
+		for (int size : SIZES) {
+			for (int length : LENGTHS) {
+				// leave room on the board for the snake to move around
+				if (length > size * size / 2) continue;
+				
+				for (UpdateMode mode : UpdateMode.values()) {
+					runner.run(moveSnake(size, length, mode));
+					runner.run(update(size, length, mode));
+				}
+				runner.run(snakeIsTrapped(size, length));
+				runner.run(randomFreePoint(size, length));
+			}
+		}
+		
+		for (int size : KERNEL_SIZES) {
+			for (int length : LENGTHS) {
+				if (length > size * size / 2) continue;
+				
+				runner.run(nextDirection(size, length));
+			}
+		}
+		
+		for (int size : ARENA_SIZES) {
+			for (int snakes : ARENA_SNAKES) {
+				for (int threads : THREADS) {
+					runner.run(arenaTick(size, snakes, threads));
+				}
+			}
+		}
+		
+		if (render && javaFxAvailable()) {
+			RenderBenchmarks.run(runner);
+		} else {
+			System.out.println("Skipping BoardRenderer benchmarks");
+		}
+		
+		runner.write(file);
+		System.out.println("Results written to " + file);
+		
+		for (String failure : runner.failures()) {
+			System.out.println("FAILED: " + failure);
+		}
+		if (!runner.failures().isEmpty()) System.exit(1);
+	}
+	
+	/**
+	 * Returns the parameters of a benchmark as text.
+	 * 
+	 * @param size 		The number of rows and columns inside the border.
+	 * @param length 	The length of the snake.
+	 * @return String
+	 */
+	static String parameters(int size, int length) {
+		return "size=" + size + " length=" + length;
+	}
+	
+	/**
+	 * Moves the snake and updates the board, the steady state game tick.
+	 */
+	private static Benchmark moveSnake(final int size, final int length, final UpdateMode mode) {
+		return new Benchmark("Board.moveSnake", parameters(size, length) + " mode=" + mode) {
+			private BoardFixture fixture;
+			
+			public void setup() {
+				this.fixture = new BoardFixture(size, length, mode, SEED);
+			}
+			
+			public boolean allocationFree() {
+				return true;
+			}
+			
+			public long excludedTime() {
+				return this.fixture.resetTime;
+			}
+			
+			public long excludedBytes() {
+				return this.fixture.resetBytes;
+			}
+			
+			public int run() {
+				this.fixture.step();
+				return this.fixture.board.snake().head.x;
+			}
+		};
+	}
+	
+	/**
+	 * Updates the board, alternating between showing and hiding the end of the snake.
+	 */
+	private static Benchmark update(final int size, final int length, final UpdateMode mode) {
+		return new Benchmark("Board.update", parameters(size, length) + " mode=" + mode) {
+			private Board board;
+			private boolean grow;
+			
+			public void setup() {
+				this.board = new BoardFixture(size, length, mode, SEED).board;
+			}
+			
+			public boolean allocationFree() {
+				return true;
+			}
+			
+			public int run() {
+				this.grow = !this.grow;
+				this.board.update(this.grow);
+				return this.grow ? 1 : 0;
+			}
+		};
+	}
+	
+	/**
+	 * Checks whether the snake is trapped.
+	 */
+	private static Benchmark snakeIsTrapped(final int size, final int length) {
+		return new Benchmark("Board.snakeIsTrapped", parameters(size, length)) {
+			private Board board;
+			
+			public void setup() {
+				this.board = new BoardFixture(size, length, UpdateMode.INCREMENTAL, SEED).board;
+			}
+			
+			public boolean allocationFree() {
+				return true;
+			}
+			
+			public int run() {
+				return this.board.snakeIsTrapped() ? 1 : 0;
+			}
+		};
+	}
+	
+	/**
+	 * Checks whether the snake is trapped and picks its next move, as each tick does.
+	 * 
+	 * Moves the head between free locations all over the board without
+	 * changing the tiles, so each operation looks at a different part of the board.
+	 */
+	private static Benchmark nextDirection(final int size, final int length) {
+		return new Benchmark("GreedyStrategy.nextDirection", parameters(size, length)) {
+			private Board board;
+			private GreedyStrategy strategy = new GreedyStrategy();
+			private int rows[] = new int[4096];
+			private int columns[] = new int[4096];
+			private int next = 0;
+			
+			public void setup() {
+				this.board = new BoardFixture(size, length, UpdateMode.INCREMENTAL, SEED).board;
+				
+				Random generator = new Random(SEED);
+				for (int i = 0; i < this.rows.length; i++) {
+					int cell = this.board.randomFreeCell(generator);
+					this.rows[i] = cell / this.board.dimension();
+					this.columns[i] = cell % this.board.dimension();
+				}
+			}
+			
+			public boolean allocationFree() {
+				return true;
+			}
+			
+			public int run() {
+				this.next = (this.next + 1) & (this.rows.length - 1);
+				this.board.snake().head.x = this.rows[this.next];
+				this.board.snake().head.y = this.columns[this.next];
+				
+				if (this.board.snakeIsTrapped()) return -1;
+				return this.strategy.nextDirection(this.board).ordinal();
+			}
+		};
+	}
+	
+	/**
+	 * Picks a random location for the apple, as Game.placeRandomApple() does.
+	 */
+	private static Benchmark randomFreePoint(final int size, final int length) {
+		return new Benchmark("Board.randomFreePoint", parameters(size, length)) {
+			private Board board;
+			private Random generator;
+			
+			public void setup() {
+				this.board = new BoardFixture(size, length, UpdateMode.INCREMENTAL, SEED).board;
+				this.generator = new Random(SEED);
+			}
+			
+			public int run() {
+				return this.board.randomFreePoint(this.generator).x;
+			}
+		};
+	}
+	
+	/**
+	 * Moves every snake on an arena, on a number of threads.
+	 * 
+	 * Starts over on a new arena once half the snakes are out,
+	 * so every operation moves about as many snakes.
+	 */
+	private static Benchmark arenaTick(final int size, final int snakes, final int threads) {
+		String parameters = "size=" + size + " snakes=" + snakes + " threads=" + (threads == 0 ? "sequential" : threads);
+		return new Benchmark("Arena.tick", parameters) {
+			private Arena arena;
+			private ForkJoinPool pool;
+			private long resetTime;
+			
+			public void setup() {
+				this.arena = new Arena(size, snakes, snakes, SEED);
+				if (threads > 0) this.pool = new ForkJoinPool(threads);
+			}
+			
+			public long excludedTime() {
+				return this.resetTime;
+			}
+			
+			public int run() {
+				if (this.arena.alive() < snakes / 2) {
+					long start = System.nanoTime();
+					this.arena = new Arena(size, snakes, snakes, SEED);
+					this.resetTime += System.nanoTime() - start;
+				}
+				
+				if (this.pool == null) {
+					this.arena.tick();
+				} else {
+					this.arena.tick(this.pool);
+				}
+				return this.arena.alive();
+			}
+		};
+	}
+	
+	/**
+	 * Returns true if the JavaFX classes can be loaded.
+	 * 
+	 * @return boolean
+	 */
+	private static boolean javaFxAvailable() {
+		try {
+			Class.forName("javafx.embed.swing.JFXPanel");
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import application.Board.UpdateMode;
+
+public class BoardFixture {
+	// The board
+	public Board board;
+	
+	// The number of rows and columns inside the border
+	private final int size;
+	
+	// The length of the snake
+	private final int length;
+	
+	// How the board is updated after the snake moves
+	private final UpdateMode mode;
+	
+	// Where to place apples, generated up front so placing them doesn't allocate
+	private final int appleRows[] = new int[1024];
+	private final int appleColumns[] = new int[1024];
+	
+	// The next apple location to try
+	private int nextApple = 0;
+	
+	// The total time and bytes spent starting over on a new board
+	public long resetTime = 0;
+	public long resetBytes = 0;
+	
+	// Counts the bytes allocated by the current thread
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param size 		The number of rows and columns inside the border.
+	 * @param length 	The length of the snake.
+	 * @param mode 		How the board is updated after the snake moves.
+	 * @param seed 		The seed for the apple locations.
+	 */
+	BoardFixture(int size, int length, UpdateMode mode, long seed) {
+		this.size = size;
+		this.length = length;
+		this.mode = mode;
+		
+		Random generator = new Random(seed);
+		for (int i = 0; i < this.appleRows.length; i++) {
+			this.appleRows[i] = 1 + generator.nextInt(size);
+			this.appleColumns[i] = 1 + generator.nextInt(size);
+		}
+		
+		reset();
+	}
+	
+	/**
+	 * Creates a new board with the snake laid out row by row
+	 * from the top of the board, and places an apple.
+	 * 
+	 * Keeps track of the time and bytes it takes,
+	 * so benchmarks can leave them out.
+	 */
+	public void reset() {
+		long thread = Thread.currentThread().getId();
+		long allocated = THREADS.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		
+		this.board = new Board(this.size);
+		Snake snake = this.board.snake();
+		snake.length = this.length;
+		
+		// walk the head back and forth along the rows
+		int row = 1;
+		int column = 1;
+		int step = 1;
+		snake.moveTo(row, column);
+		for (int i = 0; i < this.length; i++) {
+			snake.addToBody(row, column);
+			column += step;
+			if (column < 1 || column > this.size) {
+				column -= step;
+				step = -step;
+				row++;
+			}
+			snake.moveTo(row, column);
+		}
+		
+		// rebuild the board once, then keep updating it in the given mode
+		this.board.setUpdateMode(UpdateMode.FULL);
+		this.board.update();
+		this.board.setUpdateMode(this.mode);
+		
+		placeApple();
+		
+		this.resetTime += System.nanoTime() - start;
+		this.resetBytes += THREADS.getThreadAllocatedBytes(thread) - allocated;
+	}
+	
+	/**
+	 * Places the apple on the next location that isn't on the snake.
+	 */
+	public void placeApple() {
+		int row;
+		int column;
+		do {
+			row = this.appleRows[this.nextApple];
+			column = this.appleColumns[this.nextApple];
+			this.nextApple = (this.nextApple + 1) % this.appleRows.length;
+		} while (this.board.isSnake(row, column));
+		
+		this.board.apple().place(row, column);
+		this.board.update();
+	}
+	
+	/**
+	 * Moves the snake one step, without eating the apple.
+	 * 
+	 * Moves the apple once the snake reaches it,
+	 * and starts over once the snake is trapped.
+	 */
+	public void step() {
+		if (this.board.snakeIsTrapped()) reset();
+		
+		this.board.moveSnake();
+		this.board.update();
+		
+		Snake snake = this.board.snake();
+		if (snake.head.equals(this.board.apple().location)) placeApple();
+	}
+}
@@ -0,0 +1,99 @@
+package application;
+
+import java.util.concurrent.CountDownLatch;
+
+import application.Board.UpdateMode;
+import application.BoardRenderer.Backend;
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.image.WritableImage;
+
+public class RenderBenchmarks {
+	// The number of rows and columns inside the border of the boards to draw,
+	// the largest with tiles smaller than a pixel
+	private static final int SIZES[] = { 10, 100, 2000 };
+	
+	// The lengths of the snakes to draw
+	private static final int LENGTHS[] = { 1, 100 };
+	
+	// The ways of drawing the board to compare
+	private static final Backend BACKENDS[] = { Backend.CANVAS, Backend.PIXELS };
+	
+	// The seed for apple locations
+	private static final long SEED = 42;
+	
+	/**
+	 * Runs the renderer benchmarks on the JavaFX thread.
+	 * 
+	 * @param runner 	The runner to measure the benchmarks with.
+	 * @throws InterruptedException
+	 */
+	static void run(final BenchmarkRunner runner) throws InterruptedException {
+		// start the JavaFX toolkit without showing a window
+		new JFXPanel();
+		
+		final CountDownLatch done = new CountDownLatch(1);
+		Platform.runLater(() -> {
+			try {
+				for (int size : SIZES) {
+					for (int length : LENGTHS) {
+						if (length > size * size / 2) continue;
+						for (Backend backend : BACKENDS) {
+							runner.run(display(size, length, backend, true));
+							runner.run(display(size, length, backend, false));
+						}
+					}
+				}
+			} finally {
+				done.countDown();
+			}
+		});
+		done.await();
+	}
+	
+	/**
+	 * Moves the snake, draws the board offscreen and renders the canvas to an image.
+	 * 
+	 * Rendering the canvas makes JavaFX actually draw the tiles,
+	 * and keeps the canvas from buffering drawing commands forever.
+	 */
+	private static Benchmark display(final int size, final int length, final Backend backend, final boolean repaintAll) {
+		String repaint = repaintAll ? " repaint=all" : " repaint=dirty";
+		String drawing = " backend=" + backend.name().toLowerCase();
+		return new Benchmark("BoardRenderer.display", Benchmarks.parameters(size, length) + drawing + repaint) {
+			private BoardFixture fixture;
+			private BoardRenderer renderer;
+			private WritableImage image;
+			
+			public void setup() {
+				this.fixture = new BoardFixture(size, length, UpdateMode.INCREMENTAL, SEED);
+				this.renderer = new BoardRenderer(this.fixture.board);
+				this.renderer.setBackend(backend);
+				this.image = new WritableImage((int) BoardRenderer.CANVAS_SIZE, (int) BoardRenderer.CANVAS_SIZE);
+			}
+			
+			public long excludedTime() {
+				return this.fixture.resetTime;
+			}
+			
+			public long excludedBytes() {
+				return this.fixture.resetBytes;
+			}
+			
+			public int run() {
+				// the fixture starts over on a new board once the snake is trapped
+				if (this.fixture.board.snakeIsTrapped()) {
+					this.fixture.reset();
+					this.renderer = new BoardRenderer(this.fixture.board);
+					this.renderer.setBackend(backend);
+				}
+				this.fixture.step();
+				
+				if (repaintAll) this.renderer.repaint();
+				this.renderer.display();
+				this.renderer.getCanvas().snapshot(null, this.image);
+				return this.renderer.tilesDrawn();
+			}
+		};
+	}
+}
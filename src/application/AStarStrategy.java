@@ -0,0 +1,182 @@
+package application;
+
+import java.util.Arrays;
+
+public class AStarStrategy extends PathfindingStrategy {
+	// The length of the shortest known path to each location
+	private int cost[] = new int[0];
+	
+	// The search each location was done being visited in
+	private int closed[] = new int[0];
+	
+	// The locations waiting to be visited, a binary heap ordered by estimated path length
+	private int heap[] = new int[0];
+	private int heapSize;
+	
+	// The estimated length of the path through each location
+	private int estimate[] = new int[0];
+	
+	// The position of each waiting location in the heap
+	private int position[] = new int[0];
+	
+	// The location of the goal of the current search
+	private int goalRow;
+	private int goalColumn;
+	
+	@Override
+	protected void allocate(int cells) {
+		super.allocate(cells);
+		this.cost = new int[cells];
+		this.closed = new int[cells];
+		this.heap = new int[cells];
+		this.estimate = new int[cells];
+		this.position = new int[cells];
+	}
+	
+	@Override
+	protected void clear() {
+		super.clear();
+		Arrays.fill(this.closed, 0);
+	}
+	
+	/**
+	 * Visits the location with the shortest estimated path to the goal first,
+	 * using the distance along the rows and columns as the estimate.
+	 */
+	@Override
+	protected boolean search(Board board, int start, int goal) {
+		this.goalRow = goal / this.dimension;
+		this.goalColumn = goal % this.dimension;
+		this.heapSize = 0;
+		
+		this.visited[start] = this.search;
+		this.cost[start] = 0;
+		push(start, distanceToGoal(start));
+		
+		while (this.heapSize > 0) {
+			int cell = pop();
+			if (cell == goal) return true;
+			this.closed[cell] = this.search;
+			
+			int nextCost = this.cost[cell] + 1;
+			for (int offset : this.offsets) {
+				int next = cell + offset;
+				if (this.closed[next] == this.search || !board.isValid(next)) continue;
+				
+				// a location that was reached before is still waiting in the heap
+				boolean waiting = this.visited[next] == this.search;
+				if (waiting && nextCost >= this.cost[next]) continue;
+				
+				this.visited[next] = this.search;
+				this.cost[next] = nextCost;
+				this.parent[next] = cell;
+				if (waiting) {
+					this.estimate[next] = nextCost + distanceToGoal(next);
+					siftUp(this.position[next]);
+				} else {
+					push(next, nextCost + distanceToGoal(next));
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns the distance from a location to the goal along the rows and columns.
+	 * 
+	 * @param cell 		The packed location.
+	 * @return int
+	 */
+	private int distanceToGoal(int cell) {
+		return Math.abs(cell / this.dimension - this.goalRow) + Math.abs(cell % this.dimension - this.goalColumn);
+	}
+	
+	/**
+	 * Adds a location to the heap.
+	 * 
+	 * @param cell 		The packed location.
+	 * @param estimate 	The estimated length of the path through the location.
+	 */
+	private void push(int cell, int estimate) {
+		this.estimate[cell] = estimate;
+		this.heap[this.heapSize] = cell;
+		this.position[cell] = this.heapSize;
+		this.heapSize++;
+		siftUp(this.heapSize - 1);
+	}
+	
+	/**
+	 * Removes the location with the shortest estimated path from the heap.
+	 * 
+	 * @return int 	The packed location.
+	 */
+	private int pop() {
+		int cell = this.heap[0];
+		this.heapSize--;
+		if (this.heapSize > 0) {
+			move(this.heap[this.heapSize], 0);
+			siftDown(0);
+		}
+		return cell;
+	}
+	
+	/**
+	 * Returns true if the first location should be visited before the second.
+	 * 
+	 * Breaks ties in favour of the longer known path, which is closer to the goal.
+	 * 
+	 * @param a 		The first packed location.
+	 * @param b 		The second packed location.
+	 * @return boolean
+	 */
+	private boolean before(int a, int b) {
+		if (this.estimate[a] != this.estimate[b]) return this.estimate[a] < this.estimate[b];
+		return this.cost[a] > this.cost[b];
+	}
+	
+	/**
+	 * Moves the location at a position in the heap up until it's in order.
+	 * 
+	 * @param i 	The position in the heap.
+	 */
+	private void siftUp(int i) {
+		int cell = this.heap[i];
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(cell, this.heap[parent])) break;
+			move(this.heap[parent], i);
+			i = parent;
+		}
+		move(cell, i);
+	}
+	
+	/**
+	 * Moves the location at a position in the heap down until it's in order.
+	 * 
+	 * @param i 	The position in the heap.
+	 */
+	private void siftDown(int i) {
+		int cell = this.heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= this.heapSize) break;
+			if (child + 1 < this.heapSize && before(this.heap[child + 1], this.heap[child])) child++;
+			if (!before(this.heap[child], cell)) break;
+			move(this.heap[child], i);
+			i = child;
+		}
+		move(cell, i);
+	}
+	
+	/**
+	 * Puts a location at a position in the heap.
+	 * 
+	 * @param cell 	The packed location.
+	 * @param i 	The position in the heap.
+	 */
+	private void move(int cell, int i) {
+		this.heap[i] = cell;
+		this.position[cell] = i;
+	}
+}
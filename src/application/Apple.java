@@ -2,18 +2,12 @@ package application;
 
 import java.awt.Point;
 
-import application.Tile.Type;
-import javafx.scene.paint.Color;
-
 public class Apple {
 	// The location of the apple
 	public Point location;
 	
 	// Whether or not the apple is placed on the board
-	public static boolean placed = false;
-	
-	// The color of the apple
-	public Color color = Color.web("#f44336");
+	public boolean placed = false;
 
 	/**
 	 * Places the apple at a given point on the board.
@@ -21,7 +15,20 @@ public class Apple {
 	 * @param Point p 	The point to place the apple on.
 	 */
 	public void place(Point p) {
-		location = new Point((int) p.getX(), (int) p.getY());
+		place((int) p.getX(), (int) p.getY());
+	}
+	
+	/**
+	 * Places the apple at a given location on the board.
+	 * 
+	 * Reuses the point of the apple's location once there is one.
+	 * 
+	 * @param row 		The row to place the apple on.
+	 * @param column 	The column to place the apple on.
+	 */
+	public void place(int row, int column) {
+		if (location == null) location = new Point();
+		location.setLocation(row, column);
 		placed = true;
 	}
 }
@@ -0,0 +1,25 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("application.AppleEaten")
+@Label("Apple Eaten")
+@Category("Snake")
+@Description("The snake reaching the apple")
+public class AppleEatenEvent extends Event {
+	@Label("Board Size")
+	@Description("The number of rows and columns inside the border")
+	public int boardSize;
+	
+	@Label("Snake Length")
+	@Description("The length of the snake after eating")
+	public int length;
+	
+	@Label("Moves")
+	@Description("The number of moves it took to reach the apple")
+	public int moves;
+}
@@ -0,0 +1,168 @@
+package application;
+
+import java.util.Arrays;
+
+public class AppleIndex {
+	// The dimension of the board the apples are on
+	private final int dimension;
+	
+	// The number of rows and columns of locations in each bucket
+	private final int bucketSize;
+	
+	// The number of buckets along each side of the board
+	private final int buckets;
+	
+	// The packed locations of the apples in each bucket, indexed by bucket row * buckets + bucket column
+	private final int apples[][];
+	
+	// The number of apples in each bucket
+	private final int counts[];
+	
+	// One bit for each location on the board, set if an apple is there
+	private final long present[];
+	
+	// The number of apples
+	private int size = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Creates an empty index for a board of the given dimension.
+	 * 
+	 * @param dimension 	The dimension of the board, including the border.
+	 * @param bucketSize 	The number of rows and columns of locations in each bucket.
+	 */
+	AppleIndex(int dimension, int bucketSize) {
+		this.dimension = dimension;
+		this.bucketSize = bucketSize;
+		this.buckets = (dimension + bucketSize - 1) / bucketSize;
+		this.apples = new int[this.buckets * this.buckets][];
+		this.counts = new int[this.buckets * this.buckets];
+		this.present = new long[(dimension * dimension + 63) / 64];
+	}
+	
+	/**
+	 * Returns the number of apples.
+	 * 
+	 * @return int
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns true if an apple is at a location.
+	 * 
+	 * @param cell 		The packed location.
+	 * @return boolean
+	 */
+	public boolean contains(int cell) {
+		return (this.present[cell >>> 6] & (1L << cell)) != 0;
+	}
+	
+	/**
+	 * Adds an apple.
+	 * 
+	 * @param cell 		The packed location of the apple.
+	 */
+	public void add(int cell) {
+		if (contains(cell)) return;
+		
+		int bucket = bucketOf(cell);
+		int count = this.counts[bucket];
+		if (this.apples[bucket] == null) {
+			this.apples[bucket] = new int[4];
+		} else if (count == this.apples[bucket].length) {
+			this.apples[bucket] = Arrays.copyOf(this.apples[bucket], count * 2);
+		}
+		
+		this.apples[bucket][count] = cell;
+		this.counts[bucket] = count + 1;
+		this.present[cell >>> 6] |= 1L << cell;
+		this.size++;
+	}
+	
+	/**
+	 * Removes an apple.
+	 * 
+	 * @param cell 		The packed location of the apple.
+	 */
+	public void remove(int cell) {
+		if (!contains(cell)) return;
+		
+		int bucket = bucketOf(cell);
+		int list[] = this.apples[bucket];
+		int last = --this.counts[bucket];
+		for (int i = 0; i <= last; i++) {
+			if (list[i] == cell) {
+				list[i] = list[last];
+				break;
+			}
+		}
+		
+		this.present[cell >>> 6] &= ~(1L << cell);
+		this.size--;
+	}
+	
+	/**
+	 * Finds the apple closest to a location, walking outward one ring of buckets
+	 * at a time, until no farther ring can hold a closer apple.
+	 * 
+	 * Ties go to the apple with the lowest packed location, so the result
+	 * doesn't depend on the order apples were added in.
+	 * 
+	 * @param cell 		The packed location to search from.
+	 * @return int 		The packed location of the closest apple, or -1 if there are none.
+	 */
+	public int nearest(int cell) {
+		if (this.size == 0) return -1;
+		
+		int row = cell / this.dimension;
+		int column = cell % this.dimension;
+		int bucketRow = row / this.bucketSize;
+		int bucketColumn = column / this.bucketSize;
+		
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		
+		for (int ring = 0; ring < this.buckets; ring++) {
+			// every location in this ring is at least this far away
+			int reach = (ring - 1) * this.bucketSize + 1;
+			if (ring > 0 && reach > bestDistance) break;
+			
+			for (int r = bucketRow - ring; r <= bucketRow + ring; r++) {
+				if (r < 0 || r >= this.buckets) continue;
+				
+				// only the edges of the ring, the inside was searched already
+				boolean edge = r == bucketRow - ring || r == bucketRow + ring;
+				int step = edge ? 1 : 2 * ring;
+				
+				for (int c = bucketColumn - ring; c <= bucketColumn + ring; c += Math.max(step, 1)) {
+					if (c < 0 || c >= this.buckets) continue;
+					
+					int bucket = r * this.buckets + c;
+					int list[] = this.apples[bucket];
+					for (int i = 0; i < this.counts[bucket]; i++) {
+						int apple = list[i];
+						int distance = Math.abs(apple / this.dimension - row) + Math.abs(apple % this.dimension - column);
+						if (distance < bestDistance || (distance == bestDistance && apple < best)) {
+							best = apple;
+							bestDistance = distance;
+						}
+					}
+				}
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Returns the bucket a location is in.
+	 * 
+	 * @param cell 		The packed location.
+	 * @return int
+	 */
+	private int bucketOf(int cell) {
+		return (cell / this.dimension / this.bucketSize) * this.buckets + (cell % this.dimension / this.bucketSize);
+	}
+}
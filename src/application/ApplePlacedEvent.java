@@ -0,0 +1,26 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("application.ApplePlaced")
+@Label("Apple Placed")
+@Category("Snake")
+@Description("An apple dropped on the board")
+public class ApplePlacedEvent extends Event {
+	@Label("Board Size")
+	@Description("The number of rows and columns inside the border")
+	public int boardSize;
+	
+	@Label("Snake Length")
+	public int length;
+	
+	@Label("Row")
+	public int row;
+	
+	@Label("Column")
+	public int column;
+}
@@ -0,0 +1,392 @@
+package application;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class Arena {
+	// The owner of empty locations
+	public static final int EMPTY = 0;
+	
+	// The owner of the border
+	public static final int BORDER = -1;
+	
+	// The number of rows and columns of locations in each bucket of the apple index
+	private static final int BUCKET_SIZE = 16;
+	
+	// The number of snakes each task proposes moves for before it's worth splitting the work
+	private static final int SNAKES_PER_TASK = 64;
+	
+	// The dimension of the arena, including the border
+	private final int dimension;
+	
+	// The owner of each location, indexed by row * dimension + column:
+	// the id of the snake on it, EMPTY or BORDER
+	final int owner[];
+	
+	// How far the packed location moves in each direction, indexed by direction ordinal
+	final int offsets[];
+	
+	// The snakes, indexed by id - 1
+	final ArenaSnake snakes[];
+	
+	// The apples, searchable by distance
+	final AppleIndex apples;
+	
+	// The locations apples can be placed on
+	final FreeCells freeCells;
+	
+	// Picks where new apples go
+	final Random generator;
+	
+	// The location each snake is moving to this tick, or -1 if it isn't moving, indexed by id - 1
+	final int targets[];
+	
+	// The lowest id of the snakes that claimed each location this tick, or EMPTY
+	final AtomicIntegerArray claims;
+	
+	// The number of ticks played
+	private long ticks = 0;
+	
+	// The number of snakes still moving
+	private int alive;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Creates an arena with snakes and apples on random locations.
+	 * The number of apples stays the same as they're eaten, while there's room.
+	 * 
+	 * @param size 		The number of rows and columns inside the border.
+	 * @param snakes 	The number of snakes.
+	 * @param apples 	The number of apples.
+	 * @param seed 		The seed to pick locations from.
+	 */
+	Arena(int size, int snakes, int apples, long seed) {
+		this.dimension = 1 + size + 1;
+		this.owner = new int[this.dimension * this.dimension];
+		this.claims = new AtomicIntegerArray(this.dimension * this.dimension);
+		this.offsets = Board.offsets(this.dimension);
+		this.snakes = new ArenaSnake[snakes];
+		this.targets = new int[snakes];
+		this.apples = new AppleIndex(this.dimension, BUCKET_SIZE);
+		this.freeCells = new FreeCells(this.dimension * this.dimension);
+		this.generator = new Random(seed);
+		
+		// surround the arena with a border
+		for (int row = 0; row < this.dimension; row++) {
+			for (int column = 0; column < this.dimension; column++) {
+				if (row == 0 || column == 0 || row == this.dimension - 1 || column == this.dimension - 1) {
+					take(row * this.dimension + column, BORDER);
+				}
+			}
+		}
+		
+		for (int i = 0; i < snakes; i++) {
+			int cell = this.freeCells.random(this.generator);
+			if (cell < 0) throw new IllegalArgumentException("No room for " + snakes + " snakes");
+			this.snakes[i] = new ArenaSnake(i + 1, cell);
+			take(cell, i + 1);
+		}
+		this.alive = snakes;
+		
+		for (int i = 0; i < apples; i++) {
+			placeApple();
+		}
+	}
+	
+	/**
+	 * Returns the dimension of the arena, including the border.
+	 * 
+	 * @return int
+	 */
+	public int dimension() {
+		return this.dimension;
+	}
+	
+	/**
+	 * Returns the owner of a location.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return int 		The id of the snake on it, EMPTY or BORDER.
+	 */
+	public int ownerOf(int row, int column) {
+		return this.owner[row * this.dimension + column];
+	}
+	
+	/**
+	 * Returns true if an apple is at a location.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean isApple(int row, int column) {
+		return this.apples.contains(row * this.dimension + column);
+	}
+	
+	/**
+	 * Returns a snake.
+	 * 
+	 * @param id 			The id of the snake, from 1.
+	 * @return ArenaSnake
+	 */
+	public ArenaSnake snake(int id) {
+		return this.snakes[id - 1];
+	}
+	
+	/**
+	 * Returns the number of snakes.
+	 * 
+	 * @return int
+	 */
+	public int snakeCount() {
+		return this.snakes.length;
+	}
+	
+	/**
+	 * Returns the number of snakes still moving.
+	 * 
+	 * @return int
+	 */
+	public int alive() {
+		return this.alive;
+	}
+	
+	/**
+	 * Returns the number of apples on the arena.
+	 * 
+	 * @return int
+	 */
+	public int appleCount() {
+		return this.apples.size();
+	}
+	
+	/**
+	 * Returns the number of ticks played.
+	 * 
+	 * @return long
+	 */
+	public long ticks() {
+		return this.ticks;
+	}
+	
+	/**
+	 * Moves every snake one step towards its closest apple.
+	 * 
+	 * Every snake picks where to go from the arena as it was before the tick.
+	 * When snakes pick the same location, the snake with the lowest id gets it,
+	 * and the others wait a tick. A snake with nowhere to go is out of the game.
+	 * Only the locations of the snakes are visited, never the whole arena.
+	 */
+	public void tick() {
+		for (int i = 0; i < this.snakes.length; i++) {
+			propose(i);
+			claim(i);
+		}
+		applyAll();
+	}
+	
+	/**
+	 * Moves every snake one step towards its closest apple,
+	 * picking and claiming locations on the threads of a pool.
+	 * 
+	 * Picking only reads the arena, and the lowest id wins a claim
+	 * whatever order the claims are made in. Moves are then made
+	 * one snake at a time in order of id, so the arena ends up exactly
+	 * the same as after tick().
+	 * 
+	 * @param pool 		The threads to pick and claim locations on.
+	 */
+	public void tick(ForkJoinPool pool) {
+		pool.invoke(new Proposals(0, this.snakes.length));
+		applyAll();
+	}
+	
+	/**
+	 * Moves every snake that won its location, in order of id.
+	 */
+	private void applyAll() {
+		for (int i = 0; i < this.snakes.length; i++) {
+			apply(i);
+		}
+		this.ticks++;
+	}
+	
+	/**
+	 * Picks the location a snake moves to,
+	 * the empty neighbour closest to the snake's closest apple.
+	 * 
+	 * Reads the arena, but doesn't change it.
+	 * 
+	 * @param i 	The snake, indexed by id - 1.
+	 */
+	void propose(int i) {
+		ArenaSnake snake = this.snakes[i];
+		if (!snake.alive) {
+			this.targets[i] = -1;
+			return;
+		}
+		
+		int head = snake.head();
+		int apple = this.apples.nearest(head);
+		
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		for (int offset : this.offsets) {
+			int next = head + offset;
+			if (this.owner[next] != EMPTY) continue;
+			
+			// without apples, take the first way out
+			int distance = apple < 0 ? 0 : distance(next, apple);
+			if (distance < bestDistance) {
+				best = next;
+				bestDistance = distance;
+			}
+		}
+		this.targets[i] = best;
+	}
+	
+	/**
+	 * Claims the location a snake picked, unless a snake with a lower id claimed it.
+	 * 
+	 * Safe to call for many snakes at once: a claim only replaces
+	 * a higher id, so the lowest id always ends up with the location.
+	 * 
+	 * @param i 	The snake, indexed by id - 1.
+	 */
+	void claim(int i) {
+		int target = this.targets[i];
+		if (target < 0) return;
+		
+		int id = i + 1;
+		while (true) {
+			int claimed = this.claims.get(target);
+			if (claimed != EMPTY && claimed < id) return;
+			if (this.claims.compareAndSet(target, claimed, id)) return;
+		}
+	}
+	
+	/**
+	 * Moves a snake onto the location it picked, if it won the location.
+	 * 
+	 * @param i 	The snake, indexed by id - 1.
+	 */
+	void apply(int i) {
+		ArenaSnake snake = this.snakes[i];
+		if (!snake.alive) return;
+		
+		int target = this.targets[i];
+		
+		// nowhere to go
+		if (target < 0) {
+			kill(snake);
+			return;
+		}
+		
+		// another snake won the location, so wait
+		if (this.claims.get(target) != snake.id) return;
+		
+		// the winner resets the claim for the next tick
+		this.claims.set(target, EMPTY);
+		
+		snake.addHead(target);
+		take(target, snake.id);
+		
+		// eat the apple, or move the end of the snake along
+		if (this.apples.contains(target)) {
+			this.apples.remove(target);
+			snake.eaten++;
+			placeApple();
+		} else {
+			free(snake.removeTail());
+		}
+	}
+	
+	/**
+	 * Takes a snake out of the game, and clears its locations.
+	 * 
+	 * @param snake 	The snake.
+	 */
+	private void kill(ArenaSnake snake) {
+		snake.alive = false;
+		this.alive--;
+		for (int i = 0; i < snake.length(); i++) {
+			free(snake.cell(i));
+		}
+	}
+	
+	/**
+	 * Places an apple on a random free location, if there is one.
+	 */
+	private void placeApple() {
+		int cell = this.freeCells.random(this.generator);
+		if (cell < 0) return;
+		this.apples.add(cell);
+		this.freeCells.remove(cell);
+	}
+	
+	/**
+	 * Gives a location to an owner.
+	 * 
+	 * @param cell 		The packed location.
+	 * @param id 		The new owner.
+	 */
+	private void take(int cell, int id) {
+		this.owner[cell] = id;
+		this.freeCells.remove(cell);
+	}
+	
+	/**
+	 * Empties a location.
+	 * 
+	 * @param cell 		The packed location.
+	 */
+	private void free(int cell) {
+		this.owner[cell] = EMPTY;
+		if (!this.apples.contains(cell)) this.freeCells.add(cell);
+	}
+	
+	/**
+	 * Picks and claims locations for a range of snakes,
+	 * splitting the range in half until it's small enough.
+	 */
+	private class Proposals extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final int from;
+		private final int to;
+		
+		Proposals(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (this.to - this.from > SNAKES_PER_TASK) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new Proposals(this.from, middle), new Proposals(middle, this.to));
+				return;
+			}
+			
+			for (int i = this.from; i < this.to; i++) {
+				propose(i);
+				claim(i);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of steps between two locations.
+	 * 
+	 * @param from 		The packed location to start from.
+	 * @param to 		The packed location to go to.
+	 * @return int
+	 */
+	private int distance(int from, int to) {
+		return Math.abs(from / this.dimension - to / this.dimension) + Math.abs(from % this.dimension - to % this.dimension);
+	}
+}
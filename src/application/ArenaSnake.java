@@ -0,0 +1,100 @@
+package application;
+
+public class ArenaSnake {
+	// The id of the snake, which is also its owner id on the arena
+	public final int id;
+	
+	// The packed locations of the snake, head first, in a circular buffer
+	private int cells[] = new int[16];
+	
+	// The position of the head in the buffer
+	private int first = 0;
+	
+	// The number of locations the snake covers
+	private int size = 0;
+	
+	// Whether the snake can still move
+	public boolean alive = true;
+	
+	// The number of apples the snake ate
+	public int eaten = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param id 		The id of the snake.
+	 * @param cell 		The packed location the snake starts on.
+	 */
+	ArenaSnake(int id, int cell) {
+		this.id = id;
+		addHead(cell);
+	}
+	
+	/**
+	 * Returns the packed location of the snake's head.
+	 * 
+	 * @return int
+	 */
+	public int head() {
+		return this.cells[this.first];
+	}
+	
+	/**
+	 * Returns the packed location of the end of the snake.
+	 * 
+	 * @return int
+	 */
+	public int tail() {
+		return cell(this.size - 1);
+	}
+	
+	/**
+	 * Returns the number of locations the snake covers.
+	 * 
+	 * @return int
+	 */
+	public int length() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns a packed location of the snake.
+	 * 
+	 * @param i 		The location, counting from the head.
+	 * @return int
+	 */
+	public int cell(int i) {
+		return this.cells[(this.first + i) & (this.cells.length - 1)];
+	}
+	
+	/**
+	 * Moves the head onto a new location, growing the snake by one.
+	 * 
+	 * @param cell 		The packed location of the new head.
+	 */
+	public void addHead(int cell) {
+		if (this.size == this.cells.length) {
+			int grown[] = new int[this.cells.length * 2];
+			for (int i = 0; i < this.size; i++) {
+				grown[i] = cell(i);
+			}
+			this.cells = grown;
+			this.first = 0;
+		}
+		
+		this.first = (this.first - 1) & (this.cells.length - 1);
+		this.cells[this.first] = cell;
+		this.size++;
+	}
+	
+	/**
+	 * Removes the end of the snake.
+	 * 
+	 * @return int 		The packed location the end of the snake left.
+	 */
+	public int removeTail() {
+		int cell = tail();
+		this.size--;
+		return cell;
+	}
+}
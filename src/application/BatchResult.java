@@ -0,0 +1,92 @@
+package application;
+
+public class BatchResult {
+	// The number of games played
+	public long games = 0;
+	
+	// The number of games won, trapped and stalled
+	public long wins = 0;
+	public long traps = 0;
+	public long stalls = 0;
+	
+	// The total number of ticks of the games that were won
+	public long ticksToWin = 0;
+	
+	// The total number of ticks of all games
+	public long ticks = 0;
+	
+	// The total length of the snakes at the end of the games
+	public long length = 0;
+	
+	/**
+	 * Adds the result of one game.
+	 * 
+	 * @param result 	The result of the game.
+	 */
+	public void add(GameResult result) {
+		this.games++;
+		this.ticks += result.ticks;
+		this.length += result.length;
+		
+		switch (result.outcome) {
+			case WON:
+				this.wins++;
+				this.ticksToWin += result.ticks;
+				break;
+			case TRAPPED:
+				this.traps++;
+				break;
+			case STALLED:
+				this.stalls++;
+				break;
+		}
+	}
+	
+	/**
+	 * Adds the results of another batch of games.
+	 * 
+	 * @param other 	The other batch.
+	 */
+	public void add(BatchResult other) {
+		this.games += other.games;
+		this.wins += other.wins;
+		this.traps += other.traps;
+		this.stalls += other.stalls;
+		this.ticksToWin += other.ticksToWin;
+		this.ticks += other.ticks;
+		this.length += other.length;
+	}
+	
+	/**
+	 * Returns the mean number of ticks it took to win a game.
+	 * 
+	 * @return double
+	 */
+	public double meanTicksToWin() {
+		return this.wins == 0 ? 0 : (double) this.ticksToWin / this.wins;
+	}
+	
+	/**
+	 * Returns the share of games where the snake got trapped.
+	 * 
+	 * @return double
+	 */
+	public double trapRate() {
+		return this.games == 0 ? 0 : (double) this.traps / this.games;
+	}
+	
+	/**
+	 * Returns the mean length of the snake at the end of a game.
+	 * 
+	 * @return double
+	 */
+	public double meanLength() {
+		return this.games == 0 ? 0 : (double) this.length / this.games;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%d games, %d won, %d trapped, %d stalled, %.1f ticks to win, %.3f trap rate, %.2f mean length",
+				this.games, this.wins, this.traps, this.stalls, meanTicksToWin(), trapRate(), meanLength());
+	}
+}
@@ -0,0 +1,204 @@
+package application;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import application.GameResult.Outcome;
+
+public class BatchSimulator {
+	// The number of games each task plays before it's worth splitting the work
+	private static final int GAMES_PER_TASK = 64;
+	
+	// The number of rows and columns inside the border of each board
+	private final int size;
+	
+	// The snake wins once it's longer than this
+	private final int winLength;
+	
+	// The number of ticks the snake gets to reach an apple
+	private final long ticksPerApple;
+	
+	// Plays the games
+	private final ForkJoinPool pool;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Uses every core, with the same board size and winning length as the game.
+	 */
+	BatchSimulator() {
+		this(10, 10, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param size 			The number of rows and columns inside the border of each board.
+	 * @param winLength 	The snake wins once it's longer than this.
+	 * @param threads 		The number of threads to play games on.
+	 */
+	BatchSimulator(int size, int winLength, int threads) {
+		this.size = size;
+		this.winLength = winLength;
+		this.ticksPerApple = 4L * size * size;
+		this.pool = new ForkJoinPool(threads);
+	}
+	
+	/**
+	 * Plays one game for each seed, spread over the threads.
+	 * 
+	 * Every game gets its own board and strategy, so games share no state.
+	 * 
+	 * @param seeds 		The seeds to generate apple locations from.
+	 * @param strategies 	Creates the movement strategy for each game.
+	 * @return BatchResult 	The results of all games.
+	 */
+	public BatchResult run(long seeds[], Supplier<? extends MovementStrategy> strategies) {
+		return this.pool.invoke(new Games(seeds, 0, seeds.length, strategies, null, false));
+	}
+	
+	/**
+	 * Plays one game for each seed, spread over the threads,
+	 * and appends every game to an archive as it finishes.
+	 * 
+	 * @param seeds 		The seeds to generate apple locations from.
+	 * @param strategies 	Creates the movement strategy for each game.
+	 * @param archive 		The archive to append the games to.
+	 * @param withMoves 	Whether to archive every move of each game.
+	 * @return BatchResult 	The results of all games.
+	 * @throws IOException
+	 */
+	public BatchResult run(long seeds[], Supplier<? extends MovementStrategy> strategies, GameArchive archive, boolean withMoves) throws IOException {
+		try {
+			return this.pool.invoke(new Games(seeds, 0, seeds.length, strategies, archive, withMoves));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Stops the threads once the running games are done.
+	 */
+	public void shutdown() {
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Plays one game without drawing it.
+	 * 
+	 * Places random apples and moves the snake to each one,
+	 * until the snake wins, gets trapped or takes too long to reach an apple.
+	 * 
+	 * @param seed 			The seed to generate apple locations from.
+	 * @param strategy 		How the snake decides where to move.
+	 * @return GameResult
+	 */
+	public GameResult play(long seed, MovementStrategy strategy) {
+		return play(seed, strategy, null);
+	}
+	
+	/**
+	 * Plays one game without drawing it, keeping track of every move.
+	 * 
+	 * @param seed 			The seed to generate apple locations from.
+	 * @param strategy 		How the snake decides where to move.
+	 * @param moves 		Gets every move the snake makes, or null.
+	 * @return GameResult
+	 */
+	public GameResult play(long seed, MovementStrategy strategy, MoveStream moves) {
+		Board board = new Board(this.size);
+		board.setMovementStrategy(strategy);
+		Random generator = new Random(seed);
+		Snake snake = board.snake();
+		int dimension = board.dimension();
+		long ticks = 0;
+		
+		while (true) {
+			// the snake filled the board
+			if (board.isFull()) return new GameResult(seed, Outcome.WON, ticks, snake.length);
+			
+			// place the apple
+			int cell = board.randomFreeCell(generator);
+			board.apple().place(cell / dimension, cell % dimension);
+			board.update(true);
+			
+			// move the snake to the apple
+			boolean ate = false;
+			for (long tick = 0; tick < this.ticksPerApple && !ate; tick++) {
+				if (board.snakeIsTrapped()) return new GameResult(seed, Outcome.TRAPPED, ticks, snake.length);
+				ate = board.tick();
+				ticks++;
+				if (moves != null) moves.add(board.lastDirection());
+			}
+			
+			if (!ate) return new GameResult(seed, Outcome.STALLED, ticks, snake.length);
+			if (snake.length > this.winLength) return new GameResult(seed, Outcome.WON, ticks, snake.length);
+		}
+	}
+	
+	/**
+	 * Plays the games for a range of seeds,
+	 * splitting the range in half until it's small enough.
+	 */
+	private class Games extends RecursiveTask<BatchResult> {
+		private static final long serialVersionUID = 1L;
+		
+		private final long seeds[];
+		private final int from;
+		private final int to;
+		private final Supplier<? extends MovementStrategy> strategies;
+		private final GameArchive archive;
+		private final boolean withMoves;
+		
+		Games(long seeds[], int from, int to, Supplier<? extends MovementStrategy> strategies, GameArchive archive, boolean withMoves) {
+			this.seeds = seeds;
+			this.from = from;
+			this.to = to;
+			this.strategies = strategies;
+			this.archive = archive;
+			this.withMoves = withMoves;
+		}
+		
+		@Override
+		protected BatchResult compute() {
+			if (this.to - this.from > GAMES_PER_TASK) {
+				int middle = (this.from + this.to) >>> 1;
+				Games first = new Games(this.seeds, this.from, middle, this.strategies, this.archive, this.withMoves);
+				Games second = new Games(this.seeds, middle, this.to, this.strategies, this.archive, this.withMoves);
+				first.fork();
+				BatchResult result = second.compute();
+				result.add(first.join());
+				return result;
+			}
+			
+			BatchResult result = new BatchResult();
+			MoveStream moves = this.archive != null && this.withMoves ? new MoveStream() : null;
+			for (int i = this.from; i < this.to; i++) {
+				if (moves != null) moves.clear();
+				GameResult game = play(this.seeds[i], this.strategies.get(), moves);
+				result.add(game);
+				
+				if (this.archive != null) archive(game, moves);
+			}
+			return result;
+		}
+		
+		/**
+		 * Appends a game to the archive.
+		 * 
+		 * @param game 		How the game ended.
+		 * @param moves 	Every move of the game, or null.
+		 */
+		private void archive(GameResult game, MoveStream moves) {
+			try {
+				this.archive.append(game, moves);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
@@ -1,84 +1,148 @@
 package application;
 
 import java.awt.Point;
-
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
+import java.util.Random;
 
 import application.Snake;
-import application.Tile;
 import application.Tile.Type;
 import application.Apple;
+import application.TickMetrics.Phase;
 
 
 public class Board {
 	// The dimension of the board
 	private final int BORDER = 1;
-	private final int DIMENSION = BORDER + 10 + BORDER;
+	private final int DIMENSION;
 	
-	// The size of the canvas
-	public final double CANVAS_SIZE = 600;
+	// The type of each tile on the board, indexed by row * DIMENSION + column
+	private byte board[];
 	
-	// The board
-	private Tile board[][] = new Tile[DIMENSION][DIMENSION];
+	// The types of tiles, indexed by the values stored on the board
+	private static final Type TYPES[] = Type.values();
 	
-	// The canvas
-	private Canvas canvas;
+	// Whether the snake can move onto each type of tile, indexed by the values stored on the board
+	private static final boolean VALID[] = new boolean[TYPES.length];
+	static {
+		VALID[Type.BLANK.ordinal()] = true;
+		VALID[Type.APPLE.ordinal()] = true;
+	}
 	
-	// The graphics context to draw on the canvas
-	private GraphicsContext gc;
+	// Whether each value stored on the board is part of the snake
+	private static final boolean SNAKE[] = new boolean[TYPES.length];
+	static {
+		SNAKE[Type.SNAKE_HEAD.ordinal()] = true;
+		SNAKE[Type.SNAKE_BODY.ordinal()] = true;
+	}
+	
+	// The distance to the neighbouring location in each direction, indexed by Direction ordinal.
+	// The border keeps every neighbour of a location inside it on the board,
+	// so neighbours can be looked up without checking the bounds
+	private final int OFFSETS[];
 	
 	// The snake
 	private Snake snake;
 	
 	// The apple
 	private Apple apple;
+	
+	// How the board is updated
+	private UpdateMode updateMode = UpdateMode.INCREMENTAL;
+	
+	// How the snake decides where to move
+	private MovementStrategy movementStrategy = new GreedyStrategy();
+	
+	// Counts the changes to the tiles of the board
+	private int version = 0;
+	
+	// The direction of the snake's last move, or null before its first
+	private Direction lastDirection;
+	
+	// Finds the area the snake can reach
+	private Reachability reachability = new Reachability();
+	
+	// The locations the apple can be placed on
+	private FreeCells freeCells;
+	
+	// The location of the snake's head as of the last update
+	private int paintedHeadX;
+	private int paintedHeadY;
+	
+	// The number of elements of the snake's body shown as of the last update
+	private int paintedBodySize = 0;
+	
+	// The location of the apple as of the last update, or -1 if there is none
+	private int paintedAppleX = -1;
+	private int paintedAppleY = -1;
 		
 	
 	// Directions
 	public enum Direction {
 		NORTH, EAST, SOUTH, WEST;
 		
+		// All directions, values() makes a new copy every time
+		private static final Direction DIRECTIONS[] = values();
+		
 		// Get the next direction
 		public Direction next() {
-			return values()[(ordinal() + 1) % values().length];
+			return DIRECTIONS[(ordinal() + 1) % DIRECTIONS.length];
 		}
 	}
 	
-	// The color of empty tiles
-	public Color tileColor = Color.WHITE;
-	
-	// The color of the border
-	public Color borderColor = Color.web("#212121");
+	// Ways of updating the board
+	public enum UpdateMode {
+		// Rebuild every tile on each update
+		FULL,
+		
+		// Only touch the tiles that changed since the last update
+		INCREMENTAL
+	}
 	
 	/**
 	 * Contstructor
 	 * 
 	 * Initializes the board with tiles, a border,
 	 * and the initial location of the snake.
+	 * 
+	 * The board only holds the state of the game,
+	 * see BoardRenderer for drawing it on a canvas.
 	 */
 	Board() {
-		this.canvas = new Canvas(CANVAS_SIZE, CANVAS_SIZE);
-		this.gc = canvas.getGraphicsContext2D();
+		this(10);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * Initializes a board with the given number of rows and columns
+	 * inside of the border.
+	 * 
+	 * @param size 	The number of rows and columns the snake can move on.
+	 */
+	Board(int size) {
+		// the snake starts on the fifth row and column
+		if (size < 5) throw new IllegalArgumentException("Board size must be at least 5: " + size);
+		
+		this.DIMENSION = BORDER + size + BORDER;
+		this.board = new byte[DIMENSION * DIMENSION];
+		this.freeCells = new FreeCells(DIMENSION * DIMENSION);
 		this.apple = new Apple();
-		this.snake = new Snake();
+		this.snake = new Snake(DIMENSION);
+		
+		this.OFFSETS = offsets(DIMENSION);
 		
 		for (int row = 0; row < DIMENSION; row++) {
 			for (int column = 0; column < DIMENSION; column++) {
-				// get the current location within the loop
-				Point location = new Point(row, column);
-				
-				// initailze each space on the board with a blank tile
-				board[row][column] = new Tile(location);
-				
-				// overwite the blank tile with a border tile, if the type is border
-				if (isBorder(location)) set(location, Type.BORDER);
-
-				// overwite the blank tile with a snake head tile, if the type is snake head
-				if (location.equals(this.snake.head)) set(location, Type.SNAKE_HEAD);
+				// initailze each space on the board with a blank tile,
+				// or a border tile if the location is on the edge of the board
+				set(row, column, isBorder(row, column) ? Type.BORDER : Type.BLANK);
 			}
 		}
+		
+		// place the snake's head
+		set(this.snake.head, Type.SNAKE_HEAD);
+		
+		this.paintedHeadX = (int) this.snake.head.getX();
+		this.paintedHeadY = (int) this.snake.head.getY();
 	}
 	
 	/**
@@ -91,21 +155,42 @@ public class Board {
 	}
 	
 	/**
-	 * Get the canvas
+	 * Returns the distance between a location and its neighbour in a direction,
+	 * as packed locations.
 	 * 
-	 * @return Canvas canvas
+	 * @param direction 	NORTH, EAST, SOUTH, WEST
+	 * @return int
 	 */
-	public Canvas getCanvas() {
-		return this.canvas;
+	public int offset(Direction direction) {
+		return OFFSETS[direction.ordinal()];
 	}
-
+	
 	/**
-	 * Get the graphics context
+	 * Returns the distance between a location and its neighbour in each direction,
+	 * as packed locations, indexed by Direction ordinal.
 	 * 
-	 * @return GraphicsContext gc
+	 * Every grid of packed locations looks up its neighbours with this table,
+	 * so the order of the directions is kept in one place.
+	 * 
+	 * @param dimension 	The dimension of the grid, including the border.
+	 * @return int[] 		A new table, for the caller to keep.
 	 */
-	public GraphicsContext getGraphicsContext() {
-		return this.gc;
+	static int[] offsets(int dimension) {
+		int offsets[] = new int[Direction.values().length];
+		offsets[Direction.NORTH.ordinal()] = -1;
+		offsets[Direction.EAST.ordinal()] = dimension;
+		offsets[Direction.SOUTH.ordinal()] = 1;
+		offsets[Direction.WEST.ordinal()] = -dimension;
+		return offsets;
+	}
+	
+	/**
+	 * Returns the location of the snake's head.
+	 * 
+	 * @return int 		The location packed as row * dimension + column.
+	 */
+	public int headCell() {
+		return this.snake.head.x * DIMENSION + this.snake.head.y;
 	}
 	
 	/**
@@ -126,6 +211,63 @@ public class Board {
 		return this.apple;
 	}
 	
+	/**
+	 * Returns how the snake decides where to move.
+	 * 
+	 * @return MovementStrategy
+	 */
+	public MovementStrategy movementStrategy() {
+		return this.movementStrategy;
+	}
+	
+	/**
+	 * Sets how the snake decides where to move.
+	 * 
+	 * @param movementStrategy 	The strategy to use for every following move.
+	 */
+	public void setMovementStrategy(MovementStrategy movementStrategy) {
+		this.movementStrategy = movementStrategy;
+	}
+	
+	/**
+	 * Returns a number that changes whenever a tile of the board changes.
+	 * 
+	 * @return int
+	 */
+	public int version() {
+		return this.version;
+	}
+	
+	/**
+	 * Returns the direction of the snake's last move.
+	 * 
+	 * @return Direction 	Null if the snake hasn't moved yet.
+	 */
+	public Direction lastDirection() {
+		return this.lastDirection;
+	}
+	
+	/**
+	 * Returns how the board is updated.
+	 * 
+	 * @return UpdateMode
+	 */
+	public UpdateMode updateMode() {
+		return this.updateMode;
+	}
+	
+	/**
+	 * Sets how the board is updated.
+	 * 
+	 * Both modes leave the board in the same state,
+	 * incremental updates only touch the tiles that changed.
+	 * 
+	 * @param updateMode 	FULL or INCREMENTAL
+	 */
+	public void setUpdateMode(UpdateMode updateMode) {
+		this.updateMode = updateMode;
+	}
+	
 	/**
 	 * Set the type of a location on the board.
 	 * 
@@ -133,7 +275,32 @@ public class Board {
 	 * @param type		The type of the tile.
 	 */
 	public void set(Point location, Type type) {
-		this.board[(int) location.getX()][(int) location.getY()].setType(type);
+		set((int) location.getX(), (int) location.getY(), type);
+	}
+	
+	/**
+	 * Set the type of a location on the board.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @param type		The type of the tile.
+	 */
+	public void set(int row, int column, Type type) {
+		int cell = row * DIMENSION + column;
+		byte value = (byte) type.ordinal();
+		if (this.board[cell] == value) return;
+		
+		// keep track of the locations the apple can be placed on
+		if (VALID[value] != VALID[this.board[cell]]) {
+			if (VALID[value]) {
+				this.freeCells.add(cell);
+			} else {
+				this.freeCells.remove(cell);
+			}
+		}
+		
+		this.board[cell] = value;
+		this.version++;
 	}
 	
 	/**
@@ -143,7 +310,28 @@ public class Board {
 	 * @return Type		The type of tile.
 	 */
 	public Type typeOf(Point location) {
-		return this.board[(int) location.getX()][(int) location.getY()].type();
+		return typeOf((int) location.getX(), (int) location.getY());
+	}
+	
+	/**
+	 * Get the type of a location on the board.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return Type		The type of tile.
+	 */
+	public Type typeOf(int row, int column) {
+		return TYPES[this.board[row * DIMENSION + column]];
+	}
+	
+	/**
+	 * Get the type of a location on the board.
+	 * 
+	 * @param cell 		The location packed as row * dimension + column.
+	 * @return Type		The type of tile.
+	 */
+	public Type typeOf(int cell) {
+		return TYPES[this.board[cell]];
 	}
 	
 	/**
@@ -153,32 +341,7 @@ public class Board {
 	 * until an apple is eaten.
 	 */
 	public void update() {
-		for (int row = 0; row < DIMENSION; row++) {
-			for (int column = 0; column < DIMENSION; column++) {
-				// get the current location within the loop
-				Point location = new Point(row, column);
-				
-				// set the location to blank by default
-				set(location, Type.BLANK);
-				
-				// overwrite the location to border, if type is border
-				if (isBorder(location)) set(location, Type.BORDER);
-				
-				// overwrite the location to apple, if type is apple
-				if (location.equals(this.apple.location)) set(location, Type.APPLE);
-				
-				// overwrite the location to snake head, if type is snake head
-				if (location.equals(this.snake.head)) set(location, Type.SNAKE_HEAD);
-				
-				// overwrite the location to snake body, if type is snake body
-				int bodySize = this.snake.body.size() - 1;
-				for (int i = 0; i < bodySize; i++) {
-					if (location.equals(this.snake.body.get(i))) {
-						set(location, Type.SNAKE_BODY);
-					}
-				}
-			}
-		}
+		update(false);
 	}
 	
 	/**
@@ -188,127 +351,158 @@ public class Board {
 	 * @param grow
 	 */
 	public void update(boolean grow) {
+		long start = TickMetrics.ENABLED ? TickMetrics.begin(Phase.UPDATE) : 0;
+		
+		if (this.updateMode == UpdateMode.INCREMENTAL) {
+			updateIncrementally(grow);
+		} else {
+			updateFully(grow);
+		}
+		
+		if (TickMetrics.ENABLED) TickMetrics.end(Phase.UPDATE, start);
+	}
+	
+	/**
+	 * Rebuilds every tile of the board.
+	 * 
+	 * @param grow 	Shows the last element of the snake's body if true.
+	 */
+	private void updateFully(boolean grow) {
 		for (int row = 0; row < DIMENSION; row++) {
 			for (int column = 0; column < DIMENSION; column++) {
-				// get the current location within the loop
-				Point location = new Point(row, column);
-				
-				// set the location to blank by default
-				set(location, Type.BLANK);
-				
-				// overwrite the location to border, if type is border
-				if (isBorder(location)) set(location, Type.BORDER);
-				
-				// overwrite the location to apple, if type is apple
-				if (location.equals(this.apple.location)) set(location, Type.APPLE);
-				
-				// overwrite the location to snake head, if type is snake head
-				if (location.equals(this.snake.head)) set(location, Type.SNAKE_HEAD);
-				
-				// overwrite the location to snake body, if type is snake body
-				int bodySize = this.snake.body.size() - 1;
-				if (grow) bodySize++;
-				for (int i = 0; i < bodySize; i++) {
-					if (location.equals(this.snake.body.get(i))) {
-						set(location, Type.SNAKE_BODY);
-					}
-				}
+				// set the location to blank by default,
+				// or to border if the location is on the edge of the board
+				set(row, column, isBorder(row, column) ? Type.BORDER : Type.BLANK);
 			}
 		}
+		
+		// overwrite the location of the apple
+		if (this.apple.location != null) set(this.apple.location, Type.APPLE);
+		
+		// overwrite the location of the snake's head
+		set(this.snake.head, Type.SNAKE_HEAD);
+		
+		// overwrite the locations of the snake's body
+		SnakeBody body = this.snake.body;
+		int bodySize = body.size() - 1;
+		if (grow) bodySize++;
+		for (int i = 0; i < bodySize; i++) {
+			set(body.row(i), body.column(i), Type.SNAKE_BODY);
+		}
+		
+		// keep track of what was shown for the next incremental update
+		this.paintedHeadX = (int) this.snake.head.getX();
+		this.paintedHeadY = (int) this.snake.head.getY();
+		this.paintedBodySize = Math.max(bodySize, 0);
+		this.paintedAppleX = this.apple.location == null ? -1 : (int) this.apple.location.getX();
+		this.paintedAppleY = this.apple.location == null ? -1 : (int) this.apple.location.getY();
 	}
 	
-    public void display() {
-    	// clear board before displaying
-    	clear();
-    	
-		for (int row = 0; row < DIMENSION; row++) {
-			for (int column = 0; column < DIMENSION; column++) {
-				// calculate the width of one tile
-				int tileWidth = (int) (this.canvas.getWidth() / DIMENSION);
-				
-				// caculate the coordinates of each tile on the canvas
-				int x = tileWidth * row;
-				int y = tileWidth * column;
-				
-				// determine what each tile looks like
-				switch (this.board[row][column].type()) {
-					case BLANK:
-						this.gc.setFill(tileColor);
-						this.gc.fillRect(x, y, tileWidth, tileWidth);
-						break;
-					case BORDER:
-						this.gc.setFill(borderColor);
-						this.gc.fillRect(x, y, tileWidth, tileWidth);
-						break;
-					case SNAKE_HEAD:
-						this.gc.setFill(this.snake.headColor);
-						this.gc.fillRoundRect(x, y, tileWidth, tileWidth, 45, 45);
-						break;
-					case SNAKE_BODY:
-						this.gc.setFill(this.snake.bodyColor);
-						this.gc.fillRoundRect(x, y, tileWidth, tileWidth, 45, 45);
-						break;
-					case APPLE:
-						this.gc.setFill(this.apple.color);
-						this.gc.fillRoundRect(x, y, tileWidth, tileWidth, 60, 60);
-						break;
+	/**
+	 * Updates only the tiles that changed since the last update.
+	 * 
+	 * The shown part of the snake's body is always the front of the body,
+	 * so after the snake moves only the new head, the old head becoming body,
+	 * the vacated tail and the apple need to change.
+	 * 
+	 * Expects the board to be updated after every move of the snake.
+	 * 
+	 * @param grow 	Shows the last element of the snake's body if true.
+	 */
+	private void updateIncrementally(boolean grow) {
+		int headX = (int) this.snake.head.getX();
+		int headY = (int) this.snake.head.getY();
+		
+		// if the snake moved, the old head is now the first element of the body
+		// and everything shown so far moved one element back
+		int shown = this.paintedBodySize;
+		boolean moved = headX != this.paintedHeadX || headY != this.paintedHeadY;
+		if (moved) shown++;
+		
+		// the number of elements of the body to show
+		int bodySize = this.snake.body.size() - 1;
+		if (grow) bodySize++;
+		bodySize = Math.max(bodySize, 0);
+		
+		// hide the elements that are no longer part of the shown body
+		SnakeBody body = this.snake.body;
+		for (int i = bodySize; i < shown; i++) {
+			int cell = i < body.size() ? body.cell(i) : this.snake.vacated;
+			if (cell < 0) continue;
+			int row = cell / DIMENSION;
+			int column = cell % DIMENSION;
+			if (row == headX && column == headY) continue;
+			set(row, column, isApple(row, column) ? Type.APPLE : Type.BLANK);
+		}
+		
+		set(headX, headY, Type.SNAKE_HEAD);
+		
+		// show the old head as body, and any elements that are newly shown
+		if (moved && bodySize > 0) set(body.row(0), body.column(0), Type.SNAKE_BODY);
+		for (int i = moved ? Math.max(shown, 1) : shown; i < bodySize; i++) {
+			set(body.row(i), body.column(i), Type.SNAKE_BODY);
+		}
+		
+		// move the apple if it was placed somewhere else
+		if (this.apple.location != null) {
+			int appleX = (int) this.apple.location.getX();
+			int appleY = (int) this.apple.location.getY();
+			if (appleX != this.paintedAppleX || appleY != this.paintedAppleY) {
+				if (this.paintedAppleX >= 0 && typeOf(this.paintedAppleX, this.paintedAppleY) == Type.APPLE) {
+					set(this.paintedAppleX, this.paintedAppleY, Type.BLANK);
 				}
+				if (typeOf(this.apple.location) == Type.BLANK) set(this.apple.location, Type.APPLE);
+				this.paintedAppleX = appleX;
+				this.paintedAppleY = appleY;
 			}
 		}
-    }
-    
-    /**
-     * Clears the board.
-     * 
-     * @param canvas
-     * @param gc
-     */
-    public void clear() {
-    	this.gc.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
-    }
-    
-    /**
-     * Updates and displays the board.
-     * 
-     * Hides the last element of the snake's body,
-     * until an apple is eaten.
-     */
-    public void updateAndDisplay() {
-    	update();
-    	display();
-    }
-    
-    /**
-     * Updates and displays the board.
-     * 
-     * @param grow 	Shows the last element of the snake's body if true.
-     */
-    public void updateAndDisplay(boolean grow) {
-    	update(grow);
-    	display();
-    }
+		
+		this.paintedHeadX = headX;
+		this.paintedHeadY = headY;
+		this.paintedBodySize = bodySize;
+	}
 	
+	/**
+	 * Advances the game by one tick.
+	 * 
+	 * Moves the snake one point towards the apple and updates the board,
+	 * then eats the apple if the snake reached it.
+	 * 
+	 * @return boolean 	True if the snake ate the apple during this tick.
+	 */
+	public boolean tick() {
+		moveSnake();
+		update();
+		
+		// if the snake hasn't reached the apple's location, keep going
+		if (!this.snake.head.equals(this.apple.location)) return false;
+		
+		// eat the apple
+		this.snake.eatApple();
+		this.apple.placed = false;
+		
+		// show the new element of the snake's body
+		update(true);
+		
+		return true;
+	}
 	
 	/**
 	 * Moves the snake one point towards the apple.
 	 */
 	public void moveSnake() {
-		// keep track of previous location
-		this.snake.addToBody(this.snake.head);
+		long start = TickMetrics.ENABLED ? TickMetrics.begin(Phase.MOVE) : 0;
 		
-		// get the direction to the apple
-		Direction direction = getDirectionToApple();
-		
-		// find the next point the snake should move to
-		Point nextPoint = this.snake.getNextPoint(direction);
+		// keep track of previous location
+		this.snake.addToBody(this.snake.head.x, this.snake.head.y);
 		
-		// make sure the next point isn't it's own body or the border
-		while (isSnake(nextPoint) || !inBounds(nextPoint)) {
-			direction = direction.next();
-			nextPoint = this.snake.getNextPoint(direction);
-		}
+		// ask the movement strategy which way to go
+		Direction direction = this.movementStrategy.nextDirection(this);
+		this.lastDirection = direction;
 				
-		this.snake.moveTo(nextPoint);
+		this.snake.moveTo(this.snake.nextRow(direction), this.snake.nextColumn(direction));
+		
+		if (TickMetrics.ENABLED) TickMetrics.end(Phase.MOVE, start);
 	}
 	 
 	/**
@@ -318,8 +512,8 @@ public class Board {
 	 */
 	public Direction getDirectionToApple() {
 		// get the snake's distance to the apple
-		int x = (int) (this.apple.location.getX() - this.snake.head.getX());
-		int y = (int) (this.snake.head.getY() - this.apple.location.getY());
+		int x = this.apple.location.x - this.snake.head.x;
+		int y = this.snake.head.y - this.apple.location.y;
 		
 		// if the apple is north to north east
 		if (x >= 0 && y > 0) {
@@ -338,28 +532,175 @@ public class Board {
 		return Direction.NORTH;
 	 }
 	
+	/**
+	 * Generates a random point on the board to place the apple.
+	 * 
+	 * Makes sure the point is within the bounds of the board and
+	 * is not on the snake.
+	 * 
+	 * @param generator 	The random number generator to use.
+	 * @return Point 		The point, or null if the snake fills the board.
+	 */
+	public Point randomFreePoint(Random generator) {
+		int cell = randomFreeCell(generator);
+		if (cell < 0) return null;
+		
+		return new Point(cell / DIMENSION, cell % DIMENSION);
+	}
+	
+	/**
+	 * Picks a random location on the board to place the apple.
+	 * 
+	 * Draws once from the locations that are within the bounds
+	 * of the board and not on the snake, which are kept up to date
+	 * as tiles change.
+	 * 
+	 * @param generator 	The random number generator to use.
+	 * @return int 			The packed location, or -1 if the snake fills the board.
+	 */
+	public int randomFreeCell(Random generator) {
+		long start = TickMetrics.ENABLED ? TickMetrics.begin(Phase.APPLE) : 0;
+		int cell = this.freeCells.random(generator);
+		if (TickMetrics.ENABLED) TickMetrics.end(Phase.APPLE, start);
+		
+		return cell;
+	}
+	
+	/**
+	 * Copies what the board looks like into a frame,
+	 * so it can be drawn while the board keeps changing.
+	 * 
+	 * @param frame 	The frame to copy into, for a board of the same dimension.
+	 */
+	public void copyTo(BoardFrame frame) {
+		System.arraycopy(this.board, 0, frame.cells, 0, this.board.length);
+		frame.length = this.snake.length;
+		frame.headRow = (int) this.snake.head.getX();
+		frame.headColumn = (int) this.snake.head.getY();
+		frame.applePlaced = this.apple.placed;
+	}
+	
+	/**
+	 * Takes a snapshot of the board, to restore later or write out.
+	 * 
+	 * @return BoardSnapshot
+	 */
+	public BoardSnapshot snapshot() {
+		BoardSnapshot snapshot = new BoardSnapshot(DIMENSION);
+		snapshot(snapshot);
+		return snapshot;
+	}
+	
+	/**
+	 * Takes a snapshot of the board into an existing snapshot,
+	 * copying arrays instead of allocating.
+	 * 
+	 * The movement strategy isn't part of the snapshot.
+	 * 
+	 * @param snapshot 	A snapshot of a board of the same dimension.
+	 */
+	public void snapshot(BoardSnapshot snapshot) {
+		System.arraycopy(this.board, 0, snapshot.cells, 0, this.board.length);
+		snapshot.bodySize = this.snake.body.copyTo(snapshot.body);
+		snapshot.freeSize = this.freeCells.copyTo(snapshot.free);
+		
+		snapshot.length = this.snake.length;
+		snapshot.headRow = this.snake.head.x;
+		snapshot.headColumn = this.snake.head.y;
+		snapshot.vacated = this.snake.vacated;
+		
+		snapshot.applePlaced = this.apple.placed;
+		snapshot.appleRow = this.apple.location == null ? -1 : this.apple.location.x;
+		snapshot.appleColumn = this.apple.location == null ? -1 : this.apple.location.y;
+		
+		snapshot.paintedHeadX = this.paintedHeadX;
+		snapshot.paintedHeadY = this.paintedHeadY;
+		snapshot.paintedBodySize = this.paintedBodySize;
+		snapshot.paintedAppleX = this.paintedAppleX;
+		snapshot.paintedAppleY = this.paintedAppleY;
+	}
+	
+	/**
+	 * Puts the board back the way it was when a snapshot was taken.
+	 * 
+	 * The version moves forward instead of back,
+	 * so nothing cached for a later state is mistaken for this one.
+	 * 
+	 * @param snapshot 	A snapshot of a board of the same dimension.
+	 */
+	public void restore(BoardSnapshot snapshot) {
+		if (snapshot.dimension != DIMENSION) {
+			throw new IllegalArgumentException("Snapshot of a board of dimension " + snapshot.dimension + ", not " + DIMENSION);
+		}
+		
+		System.arraycopy(snapshot.cells, 0, this.board, 0, this.board.length);
+		this.snake.body.restore(snapshot.body, snapshot.bodySize);
+		this.freeCells.restore(snapshot.free, snapshot.freeSize);
+		
+		this.snake.length = snapshot.length;
+		this.snake.head.setLocation(snapshot.headRow, snapshot.headColumn);
+		this.snake.vacated = snapshot.vacated;
+		
+		if (snapshot.appleRow >= 0) {
+			this.apple.place(snapshot.appleRow, snapshot.appleColumn);
+		} else {
+			this.apple.location = null;
+		}
+		this.apple.placed = snapshot.applePlaced;
+		
+		this.paintedHeadX = snapshot.paintedHeadX;
+		this.paintedHeadY = snapshot.paintedHeadY;
+		this.paintedBodySize = snapshot.paintedBodySize;
+		this.paintedAppleX = snapshot.paintedAppleX;
+		this.paintedAppleY = snapshot.paintedAppleY;
+		
+		this.version++;
+	}
+	
+	/**
+	 * Returns true if there is no location left to place the apple on.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isFull() {
+		return this.freeCells.size() == 0;
+	}
+	
 	/**
 	 * Returns true if the snake is trapped.
 	 * 
 	 * @return boolean
 	 */
 	public boolean snakeIsTrapped() {
-		// get snake's x and y coordinates
-		int x = (int) this.snake.head.getX();
-		int y = (int) this.snake.head.getY();
-		
-		// get all the possible points the snake could move to
-		Point northPoint = new Point(x, y + 1);
-		Point eastPoint = new Point(x + 1, y);
-		Point southPoint = new Point(x, y - 1);
-		Point westPoint = new Point(x - 1, y);
-		
-		// return true if all the points are not valid points to move to
-		if (!isValid(northPoint) && !isValid(eastPoint) && !isValid(southPoint) && !isValid(westPoint)) {
-			return true;
-		}
+		long start = TickMetrics.ENABLED ? TickMetrics.begin(Phase.TRAPPED) : 0;
+		
+		// the head is never on the border, so each of its neighbours is on the board
+		int head = headCell();
+		byte cells[] = this.board;
+		
+		// the snake is trapped if all the locations it could move to are not valid,
+		// checked without branching on each one
+		boolean trapped = !(VALID[cells[head - 1]] | VALID[cells[head + 1]]
+				| VALID[cells[head - DIMENSION]] | VALID[cells[head + DIMENSION]]);
+		
+		if (TickMetrics.ENABLED) TickMetrics.end(Phase.TRAPPED, start);
+		return trapped;
+	}
+	
+	/**
+	 * Returns true if the snake is trapped, headed into a dead end,
+	 * or cut off from the apple.
+	 * 
+	 * Looks at the whole area the snake can reach instead of only
+	 * the locations next to its head, see Reachability.canHoldSnakeAndReachApple().
+	 * 
+	 * @return boolean
+	 */
+	public boolean snakeWillBeTrapped() {
+		if (snakeIsTrapped()) return true;
 		
-		return false;
+		this.reachability.analyze(this);
+		return !this.reachability.canHoldSnakeAndReachApple();
 	}
 	
 	 /**
@@ -369,10 +710,31 @@ public class Board {
 	  * @return boolean
 	  */
 	 public boolean isValid(Point p) {
-		 if (typeOf(p) == Type.BLANK || typeOf(p) == Type.APPLE) {
-			return true;
-		}
-		return false;
+		 return isValid(p.x, p.y);
+	}
+	
+	/**
+	 * Returns true if the given location is a valid location for the snake to move to.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean isValid(int row, int column) {
+		return VALID[this.board[row * DIMENSION + column]];
+	}
+	
+	/**
+	 * Returns true if the given location is a valid location for the snake to move to.
+	 * 
+	 * The border is never valid, so neighbouring locations
+	 * can be checked without checking the bounds of the board.
+	 * 
+	 * @param cell 		The location packed as row * dimension + column.
+	 * @return boolean
+	 */
+	public boolean isValid(int cell) {
+		return VALID[this.board[cell]];
 	}
 	
 	 /**
@@ -382,10 +744,39 @@ public class Board {
 	  * @return boolean
 	  */
 	 public boolean isSnake(Point p) {
-		 if (typeOf(p) == Type.SNAKE_HEAD || typeOf(p) == Type.SNAKE_BODY) {
-			return true;
-		}
-		return false;
+		 return isSnake(p.x, p.y);
+	}
+	
+	/**
+	 * Returns true if the given location is occupied by the snake.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean isSnake(int row, int column) {
+		return SNAKE[this.board[row * DIMENSION + column]];
+	}
+	
+	/**
+	 * Returns true if the given location is occupied by the snake.
+	 * 
+	 * @param cell 		The location packed as row * dimension + column.
+	 * @return boolean
+	 */
+	public boolean isSnake(int cell) {
+		return SNAKE[this.board[cell]];
+	}
+	
+	/**
+	 * Returns true if the apple is placed at the given location.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	private boolean isApple(int row, int column) {
+		return this.apple.location != null && this.apple.location.x == row && this.apple.location.y == column;
 	}
 	
 	/**
@@ -395,10 +786,21 @@ public class Board {
 	 * @return boolean
 	 */
 	public boolean inBounds(Point p) {
-		if (p.getX() > 0 && p.getX() < DIMENSION - 1 && p.getY() > 0 && p.getY() < DIMENSION - 1) {
-			return true;
-		}
-		return false;
+		return inBounds(p.x, p.y);
+	}
+	
+	/**
+	 * Returns true if the given location is within the bounds of the board.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean inBounds(int row, int column) {
+		// each difference is negative only if the location is on or past that side of the border,
+		// so one sign check covers all four sides
+		int last = DIMENSION - 2;
+		return ((row - 1) | (column - 1) | (last - row) | (last - column)) >= 0;
 	}
 	
 	/**
@@ -408,9 +810,17 @@ public class Board {
 	 * @return boolean
 	 */
 	public boolean isBorder(Point p) {
-		if (p.getX() == 0 || p.getX() == DIMENSION - 1 || p.getY() == 0 || p.getY() == DIMENSION - 1) { 
-			return true;
-		}
-		return false;
+		return isBorder(p.x, p.y);
+	}
+	
+	/**
+	 * Returns true if the location is the border of the board.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean isBorder(int row, int column) {
+		return row == 0 || row == DIMENSION - 1 || column == 0 || column == DIMENSION - 1;
 	}
 }
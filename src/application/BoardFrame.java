@@ -0,0 +1,57 @@
+package application;
+
+import application.Tile.Type;
+
+public class BoardFrame {
+	// The types of tiles, indexed by the values stored in the frame
+	private static final Type TYPES[] = Type.values();
+	
+	// The dimension of the board
+	public final int dimension;
+	
+	// The type of each tile, indexed by row * dimension + column
+	final byte cells[];
+	
+	// The length of the snake
+	public int length;
+	
+	// The location of the snake's head
+	public int headRow;
+	public int headColumn;
+	
+	// The location of the snake's head in the frame before
+	public int fromRow;
+	public int fromColumn;
+	
+	// When the frame was published, from System.nanoTime()
+	public long publishedAt;
+	
+	// Whether or not the apple is placed on the board
+	public boolean applePlaced;
+	
+	// Counts the frames published, so readers can tell frames apart
+	public long sequence;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Creates an empty frame for a board of the given dimension.
+	 * 
+	 * @param dimension 	The dimension of the board, including the border.
+	 */
+	BoardFrame(int dimension) {
+		this.dimension = dimension;
+		this.cells = new byte[dimension * dimension];
+	}
+	
+	/**
+	 * Returns what a location in the frame looks like.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return Type
+	 */
+	public Type typeOf(int row, int column) {
+		return TYPES[this.cells[row * this.dimension + column]];
+	}
+}
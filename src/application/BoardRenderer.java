@@ -0,0 +1,592 @@
+package application;
+
+import java.util.Arrays;
+
+import application.TickMetrics.Phase;
+import application.Tile.Type;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+public class BoardRenderer {
+	// The size of the canvas, unless given
+	public static final double CANVAS_SIZE = 600;
+
+	// How round the snake and the apple are, relative to the width of a tile
+	private static final double SNAKE_ROUNDNESS = 0.9;
+	private static final double APPLE_ROUNDNESS = 1.2;
+
+	// The board to draw
+	private Board board;
+
+	// The canvas
+	private Canvas canvas;
+
+	// The graphics context to draw on the canvas
+	private GraphicsContext gc;
+
+	// The color of empty tiles
+	public Color tileColor = Color.WHITE;
+
+	// The color of the border
+	public Color borderColor = Color.web("#212121");
+
+	// The color of the snake's head
+	public Color snakeHeadColor = Color.web("#4CAF50");
+
+	// The color of the snake's body
+	public Color snakeBodyColor = Color.web("#8BC34A");
+
+	// The color of the apple
+	public Color appleColor = Color.web("#f44336");
+
+	// The type of each tile as of the last frame, indexed by row * dimension + column
+	private Type drawn[];
+
+	// The colors used to draw the last frame, indexed by tile type
+	private Color drawnColors[] = new Color[Type.values().length];
+
+	// The colors used to draw the last frame as ARGB pixels, indexed by tile type
+	private int drawnPixels[] = new int[Type.values().length];
+
+	// The canvas size the tile geometry was calculated for
+	private double drawnWidth = -1;
+	private double drawnHeight = -1;
+
+	// Where each row and column of tiles starts on the canvas, with one more for where the last ends
+	private int rowEdges[];
+	private int columnEdges[];
+
+	// Ways of drawing the board
+	public enum Backend {
+		// Draw each tile with its own call on the graphics context
+		CANVAS,
+
+		// Write the tiles into a buffer of pixels, and draw it with one call
+		PIXELS,
+
+		// Draw with CANVAS, unless tiles are smaller than a pixel
+		AUTO
+	}
+
+	// How the board is drawn
+	private Backend backend = Backend.AUTO;
+
+	// Whether the board is drawn as a buffer of pixels
+	private boolean pixelMode;
+
+	// Whether tiles are smaller than a pixel, so each pixel is colored like the tile under its corner
+	private boolean subpixel;
+
+	// The image the board is drawn on in pixel mode, and its pixels
+	private WritableImage image;
+	private int pixels[];
+
+	// The row and column of the tile under each pixel, when tiles are smaller than a pixel
+	private int pixelRows[];
+	private int pixelColumns[];
+
+	// Whether the next frame has to repaint every tile
+	private boolean repaintAll = true;
+
+	// Whether the snake's head is drawn moving between tiles
+	public boolean interpolate = true;
+
+	// The tiles covered by the moving head in the last frame, or -1 if it wasn't drawn
+	private int coveredFrom = -1;
+	private int coveredTo = -1;
+
+	// The time it took to draw the last frame (in nanoseconds)
+	private long frameTime;
+
+	// The number of tiles drawn in the last frame
+	private int tilesDrawn;
+
+	// The frame the board is copied into when drawn directly
+	private BoardFrame frame;
+
+	/**
+	 * Constructor
+	 *
+	 * Creates a canvas of the usual size the board is drawn on.
+	 *
+	 * @param board 	The board to draw.
+	 */
+	BoardRenderer(Board board) {
+		this(board, CANVAS_SIZE, CANVAS_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * Creates the canvas the board is drawn on.
+	 *
+	 * @param board 	The board to draw.
+	 * @param width 	The width of the canvas.
+	 * @param height 	The height of the canvas.
+	 */
+	BoardRenderer(Board board, double width, double height) {
+		this.board = board;
+		this.canvas = new Canvas(width, height);
+		this.gc = canvas.getGraphicsContext2D();
+		this.drawn = new Type[board.dimension() * board.dimension()];
+		this.frame = new BoardFrame(board.dimension());
+	}
+
+	/**
+	 * Get the canvas
+	 *
+	 * @return Canvas canvas
+	 */
+	public Canvas getCanvas() {
+		return this.canvas;
+	}
+
+	/**
+	 * Get the graphics context
+	 *
+	 * @return GraphicsContext gc
+	 */
+	public GraphicsContext getGraphicsContext() {
+		return this.gc;
+	}
+
+	/**
+	 * Returns the time it took to draw the last frame.
+	 *
+	 * @return long 	The frame time in nanoseconds.
+	 */
+	public long frameTime() {
+		return this.frameTime;
+	}
+
+	/**
+	 * Returns the number of tiles drawn in the last frame.
+	 *
+	 * @return int
+	 */
+	public int tilesDrawn() {
+		return this.tilesDrawn;
+	}
+
+	/**
+	 * Returns the row of tiles under a point on the canvas.
+	 *
+	 * @param x 		The distance from the left of the canvas.
+	 * @return int
+	 */
+	public int rowAt(double x) {
+		return (int) ((x / (int) this.canvas.getWidth()) * this.board.dimension());
+	}
+
+	/**
+	 * Returns the column of tiles under a point on the canvas.
+	 *
+	 * @param y 		The distance from the top of the canvas.
+	 * @return int
+	 */
+	public int columnAt(double y) {
+		return (int) ((y / (int) this.canvas.getHeight()) * this.board.dimension());
+	}
+
+	/**
+	 * Returns how the board is drawn.
+	 *
+	 * @return Backend
+	 */
+	public Backend backend() {
+		return this.backend;
+	}
+
+	/**
+	 * Changes how the board is drawn, starting with the next frame.
+	 *
+	 * @param backend 	How to draw the board.
+	 */
+	public void setBackend(Backend backend) {
+		this.backend = backend;
+		this.drawnWidth = -1;
+	}
+
+	/**
+	 * Returns true if the board is drawn as a buffer of pixels,
+	 * either because it was picked or because tiles are smaller than a pixel.
+	 *
+	 * @return boolean
+	 */
+	public boolean pixelMode() {
+		return this.pixelMode;
+	}
+
+	/**
+	 * Makes the next frame repaint every tile.
+	 */
+	public void repaint() {
+		this.repaintAll = true;
+	}
+
+	/**
+	 * Draws the board on the canvas as it is now.
+	 *
+	 * Only call when nothing else is changing the board.
+	 */
+    public void display() {
+    	this.board.copyTo(this.frame);
+    	display(this.frame);
+    }
+
+	/**
+	 * Draws a frame of the board on the canvas.
+	 *
+	 * @param frame 	The frame to draw.
+	 */
+    public void display(BoardFrame frame) {
+    	display(frame, 1);
+    }
+
+	/**
+	 * Draws a frame of the board on the canvas,
+	 * with the snake's head part of the way to its tile.
+	 *
+	 * Only the tiles that changed since the last frame are drawn,
+	 * unless the canvas was resized or the colors changed.
+	 * In pixel mode, the tiles are drawn into a buffer of pixels instead,
+	 * which is put on the canvas as one image.
+	 *
+	 * @param frame 	The frame to draw.
+	 * @param progress 	How far the head moved from its last tile to its tile, from 0 to 1.
+	 */
+    public void display(BoardFrame frame, double progress) {
+    	long start = TickMetrics.ENABLED ? TickMetrics.begin(Phase.DISPLAY) : System.nanoTime();
+    	FrameEvent event = new FrameEvent();
+    	event.begin();
+    	int dimension = frame.dimension;
+
+    	// calculate where the tiles go, and start over if the canvas was resized
+    	if (this.canvas.getWidth() != this.drawnWidth || this.canvas.getHeight() != this.drawnHeight) {
+    		layOut(dimension);
+    		this.repaintAll = true;
+    	}
+
+    	// start over if any of the colors changed
+    	if (paletteChanged()) this.repaintAll = true;
+
+    	// redraw the tiles the moving head covered
+    	if (this.coveredFrom >= 0) {
+    		this.drawn[this.coveredFrom] = null;
+    		this.drawn[this.coveredTo] = null;
+    		this.coveredFrom = -1;
+    		this.coveredTo = -1;
+    	}
+
+    	int tiles = this.pixelMode ? drawPixels(frame) : drawTiles(frame);
+
+		// tiles smaller than a pixel can't be seen moving
+		if (this.interpolate && progress < 1 && !this.subpixel) tiles += drawMovingHead(frame, progress);
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.boardSize = dimension - 2;
+			event.length = frame.length;
+			event.sequence = frame.sequence;
+			event.tilesDrawn = tiles;
+			event.repaintAll = this.repaintAll;
+			event.backend = this.pixelMode ? Backend.PIXELS.name() : Backend.CANVAS.name();
+			event.commit();
+		}
+
+		this.repaintAll = false;
+		this.tilesDrawn = tiles;
+		this.frameTime = System.nanoTime() - start;
+		if (TickMetrics.ENABLED) TickMetrics.end(Phase.DISPLAY, start);
+    }
+
+    /**
+     * Calculates where each tile goes on the canvas, once for each canvas size.
+     *
+     * Tile edges are rounded to whole pixels, so the tiles cover the canvas without gaps.
+     *
+     * @param dimension 	The dimension of the board.
+     */
+    private void layOut(int dimension) {
+    	this.drawnWidth = this.canvas.getWidth();
+    	this.drawnHeight = this.canvas.getHeight();
+    	this.rowEdges = edges(dimension, this.drawnWidth);
+    	this.columnEdges = edges(dimension, this.drawnHeight);
+
+    	// switch to drawing pixels once tiles are smaller than a pixel, unless told how to draw
+    	this.subpixel = this.drawnWidth < dimension || this.drawnHeight < dimension;
+    	this.pixelMode = this.backend == Backend.PIXELS || (this.backend == Backend.AUTO && this.subpixel);
+    	if (!this.pixelMode) {
+    		this.image = null;
+    		this.pixels = null;
+    		return;
+    	}
+
+    	int width = (int) this.drawnWidth;
+    	int height = (int) this.drawnHeight;
+    	this.image = new WritableImage(width, height);
+    	this.pixels = new int[width * height];
+    	if (this.subpixel) {
+    		this.pixelRows = tilesUnder(width, dimension);
+    		this.pixelColumns = tilesUnder(height, dimension);
+    	}
+    }
+
+    /**
+     * Returns where each of a number of tiles starts along a side of the canvas.
+     *
+     * A pixel belongs to the tile its left or top edge is on,
+     * the same tile rowAt() and columnAt() pick.
+     *
+     * @param tiles 	The number of tiles along the side.
+     * @param length 	The length of the side.
+     * @return int[] 	The start of each tile, and where the last one ends.
+     */
+    private static int[] edges(int tiles, double length) {
+    	long pixels = (long) length;
+    	int edges[] = new int[tiles + 1];
+    	for (int i = 0; i <= tiles; i++) {
+    		edges[i] = (int) ((i * pixels + tiles - 1) / tiles);
+    	}
+    	return edges;
+    }
+
+    /**
+     * Returns the tile under the left or top edge of each pixel along a side of the canvas.
+     *
+     * @param pixels 	The number of pixels along the side.
+     * @param tiles 	The number of tiles along the side.
+     * @return int[]
+     */
+    private static int[] tilesUnder(int pixels, int tiles) {
+    	int under[] = new int[pixels];
+    	for (int i = 0; i < pixels; i++) {
+    		under[i] = (int) ((long) i * tiles / pixels);
+    	}
+    	return under;
+    }
+
+    /**
+     * Draws the tiles that changed since the last frame on the graphics context.
+     *
+     * @param frame 	The frame to draw.
+     * @return int 		The number of tiles drawn.
+     */
+    private int drawTiles(BoardFrame frame) {
+    	int dimension = frame.dimension;
+
+    	// clear board before repainting every tile
+    	if (this.repaintAll) clear();
+
+    	int tiles = 0;
+		for (int row = 0; row < dimension; row++) {
+			for (int column = 0; column < dimension; column++) {
+				Type type = frame.typeOf(row, column);
+
+				// skip tiles that look the same as in the last frame
+				int index = row * dimension + column;
+				if (!this.repaintAll && this.drawn[index] == type) continue;
+				this.drawn[index] = type;
+
+				drawTile(row, column, type);
+				tiles++;
+			}
+		}
+		return tiles;
+    }
+
+    /**
+     * Draws a frame into the buffer of pixels, then puts the buffer
+     * on the canvas with one call.
+     *
+     * Only the tiles that changed since the last frame are written to the buffer.
+     * Tiles are drawn square, without rounded corners.
+     *
+     * @param frame 	The frame to draw.
+     * @return int 		The number of tiles drawn.
+     */
+    private int drawPixels(BoardFrame frame) {
+    	int width = (int) this.drawnWidth;
+    	int height = (int) this.drawnHeight;
+    	int dimension = frame.dimension;
+    	byte cells[] = frame.cells;
+    	int tiles;
+
+    	if (this.subpixel) {
+    		// color each pixel like the tile under its corner
+    		for (int y = 0; y < height; y++) {
+    			int column = this.pixelColumns[y];
+    			int line = y * width;
+    			for (int x = 0; x < width; x++) {
+    				this.pixels[line + x] = this.drawnPixels[cells[this.pixelRows[x] * dimension + column]];
+    			}
+    		}
+    		tiles = dimension * dimension;
+    	} else {
+    		tiles = 0;
+    		for (int row = 0; row < dimension; row++) {
+    			for (int column = 0; column < dimension; column++) {
+    				Type type = frame.typeOf(row, column);
+
+    				// skip tiles that look the same as in the last frame
+    				int index = row * dimension + column;
+    				if (!this.repaintAll && this.drawn[index] == type) continue;
+    				this.drawn[index] = type;
+
+    				fillPixels(row, column, this.drawnPixels[type.ordinal()], width);
+    				tiles++;
+    			}
+    		}
+    	}
+
+    	this.image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), this.pixels, 0, width);
+    	this.gc.drawImage(this.image, 0, 0);
+    	return tiles;
+    }
+
+    /**
+     * Fills the pixels of a tile in the buffer with one color.
+     *
+     * @param row 		The row of the tile.
+     * @param column 	The column of the tile.
+     * @param pixel 	The ARGB color of the tile.
+     * @param width 	The width of the buffer.
+     */
+    private void fillPixels(int row, int column, int pixel, int width) {
+    	int left = this.rowEdges[row];
+    	int right = this.rowEdges[row + 1];
+    	for (int y = this.columnEdges[column]; y < this.columnEdges[column + 1]; y++) {
+    		Arrays.fill(this.pixels, y * width + left, y * width + right, pixel);
+    	}
+    }
+
+    /**
+     * Draws a single tile.
+     *
+     * @param row 		The row of the tile.
+     * @param column 	The column of the tile.
+     * @param type 		What the tile looks like.
+     */
+    private void drawTile(int row, int column, Type type) {
+		// look up the coordinates and size of the tile on the canvas
+		int x = this.rowEdges[row];
+		int y = this.columnEdges[column];
+		int width = this.rowEdges[row + 1] - x;
+		int height = this.columnEdges[column + 1] - y;
+
+		// clear what was drawn before, so the corners of round tiles stay empty
+		if (!this.repaintAll) this.gc.clearRect(x, y, width, height);
+
+		// determine what the tile looks like
+		switch (type) {
+			case BLANK:
+				this.gc.setFill(tileColor);
+				this.gc.fillRect(x, y, width, height);
+				break;
+			case BORDER:
+				this.gc.setFill(borderColor);
+				this.gc.fillRect(x, y, width, height);
+				break;
+			case SNAKE_HEAD:
+				this.gc.setFill(snakeHeadColor);
+				this.gc.fillRoundRect(x, y, width, height, width * SNAKE_ROUNDNESS, height * SNAKE_ROUNDNESS);
+				break;
+			case SNAKE_BODY:
+				this.gc.setFill(snakeBodyColor);
+				this.gc.fillRoundRect(x, y, width, height, width * SNAKE_ROUNDNESS, height * SNAKE_ROUNDNESS);
+				break;
+			case APPLE:
+				this.gc.setFill(appleColor);
+				this.gc.fillRoundRect(x, y, width, height, width * APPLE_ROUNDNESS, height * APPLE_ROUNDNESS);
+				break;
+		}
+    }
+
+    /**
+     * Draws the snake's head part of the way from its last tile to its tile.
+     *
+     * @param frame 	The frame being drawn.
+     * @param progress 	How far the head moved, from 0 to 1.
+     * @return int 		The number of tiles drawn.
+     */
+    private int drawMovingHead(BoardFrame frame, double progress) {
+    	int rowStep = frame.headRow - frame.fromRow;
+    	int columnStep = frame.headColumn - frame.fromColumn;
+
+    	// only draw moves to a neighbouring tile
+    	if (Math.abs(rowStep) + Math.abs(columnStep) != 1) return 0;
+
+    	// the head hasn't fully arrived, so its tile is empty until then
+    	int dimension = frame.dimension;
+    	drawTile(frame.headRow, frame.headColumn, Type.BLANK);
+
+    	// draw the head between the two tiles
+    	int fromX = this.rowEdges[frame.fromRow];
+    	int fromY = this.columnEdges[frame.fromColumn];
+    	double x = fromX + (this.rowEdges[frame.headRow] - fromX) * progress;
+    	double y = fromY + (this.columnEdges[frame.headColumn] - fromY) * progress;
+    	double width = this.rowEdges[frame.headRow + 1] - this.rowEdges[frame.headRow];
+    	double height = this.columnEdges[frame.headColumn + 1] - this.columnEdges[frame.headColumn];
+    	this.gc.setFill(snakeHeadColor);
+    	this.gc.fillRoundRect(x, y, width, height, width * SNAKE_ROUNDNESS, height * SNAKE_ROUNDNESS);
+
+    	// both tiles have to be drawn again next frame
+    	this.coveredFrom = frame.fromRow * dimension + frame.fromColumn;
+    	this.coveredTo = frame.headRow * dimension + frame.headColumn;
+    	return 2;
+    }
+
+    /**
+     * Returns true if any of the colors changed since the last frame,
+     * and remembers the current colors.
+     *
+     * @return boolean
+     */
+    private boolean paletteChanged() {
+    	boolean changed = false;
+    	changed |= remember(Type.BLANK, tileColor);
+    	changed |= remember(Type.BORDER, borderColor);
+    	changed |= remember(Type.SNAKE_HEAD, snakeHeadColor);
+    	changed |= remember(Type.SNAKE_BODY, snakeBodyColor);
+    	changed |= remember(Type.APPLE, appleColor);
+    	return changed;
+    }
+
+    /**
+     * Remembers the color of a type of tile.
+     *
+     * @param type 		The type of tile.
+     * @param color 	The color of the tile.
+     * @return boolean 	True if the color is different than before.
+     */
+    private boolean remember(Type type, Color color) {
+    	if (color.equals(this.drawnColors[type.ordinal()])) return false;
+    	this.drawnColors[type.ordinal()] = color;
+    	this.drawnPixels[type.ordinal()] = argb(color);
+    	return true;
+    }
+
+    /**
+     * Packs a color into an ARGB pixel.
+     *
+     * @param color 	The color.
+     * @return int
+     */
+    private static int argb(Color color) {
+    	int alpha = (int) Math.round(color.getOpacity() * 255);
+    	int red = (int) Math.round(color.getRed() * 255);
+    	int green = (int) Math.round(color.getGreen() * 255);
+    	int blue = (int) Math.round(color.getBlue() * 255);
+    	return alpha << 24 | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Clears the canvas.
+     */
+    public void clear() {
+    	this.gc.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+    }
+}
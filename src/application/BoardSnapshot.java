@@ -0,0 +1,134 @@
+package application;
+
+import java.nio.ByteBuffer;
+
+public class BoardSnapshot {
+	// The dimension of the board
+	public final int dimension;
+	
+	// The type of each tile, indexed by row * dimension + column
+	final byte cells[];
+	
+	// The packed locations of the snake's body, front first
+	final int body[];
+	int bodySize;
+	
+	// The snake
+	int length;
+	int headRow;
+	int headColumn;
+	int vacated;
+	
+	// The apple, with a row of -1 if it was never placed
+	boolean applePlaced;
+	int appleRow;
+	int appleColumn;
+	
+	// The locations the apple can be placed on, in the order random picks are made from
+	final int free[];
+	int freeSize;
+	
+	// What the board looked like as of the last update
+	int paintedHeadX;
+	int paintedHeadY;
+	int paintedBodySize;
+	int paintedAppleX;
+	int paintedAppleY;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Creates an empty snapshot for a board of the given dimension,
+	 * which can be taken and restored any number of times.
+	 * 
+	 * @param dimension 	The dimension of the board, including the border.
+	 */
+	BoardSnapshot(int dimension) {
+		this.dimension = dimension;
+		this.cells = new byte[dimension * dimension];
+		this.body = new int[dimension * dimension];
+		this.free = new int[dimension * dimension];
+	}
+	
+	/**
+	 * Returns the length of the snake.
+	 * 
+	 * @return int
+	 */
+	public int length() {
+		return this.length;
+	}
+	
+	/**
+	 * Returns the number of bytes the snapshot takes when written to a buffer.
+	 * 
+	 * @return int
+	 */
+	public int serializedSize() {
+		return 4 * 14 + 1 + 4 * this.bodySize + 4 * this.freeSize + this.cells.length;
+	}
+	
+	/**
+	 * Writes the snapshot to a buffer.
+	 * 
+	 * @param buffer 	The buffer to write to, with at least serializedSize() bytes left.
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		buffer.putInt(this.dimension);
+		buffer.putInt(this.length);
+		buffer.putInt(this.headRow);
+		buffer.putInt(this.headColumn);
+		buffer.putInt(this.vacated);
+		buffer.put((byte) (this.applePlaced ? 1 : 0));
+		buffer.putInt(this.appleRow);
+		buffer.putInt(this.appleColumn);
+		buffer.putInt(this.paintedHeadX);
+		buffer.putInt(this.paintedHeadY);
+		buffer.putInt(this.paintedBodySize);
+		buffer.putInt(this.paintedAppleX);
+		buffer.putInt(this.paintedAppleY);
+		
+		buffer.putInt(this.bodySize);
+		buffer.asIntBuffer().put(this.body, 0, this.bodySize);
+		buffer.position(buffer.position() + 4 * this.bodySize);
+		
+		buffer.putInt(this.freeSize);
+		buffer.asIntBuffer().put(this.free, 0, this.freeSize);
+		buffer.position(buffer.position() + 4 * this.freeSize);
+		
+		buffer.put(this.cells);
+	}
+	
+	/**
+	 * Reads a snapshot written with writeTo().
+	 * 
+	 * @param buffer 			The buffer to read from.
+	 * @return BoardSnapshot
+	 */
+	public static BoardSnapshot readFrom(ByteBuffer buffer) {
+		BoardSnapshot snapshot = new BoardSnapshot(buffer.getInt());
+		snapshot.length = buffer.getInt();
+		snapshot.headRow = buffer.getInt();
+		snapshot.headColumn = buffer.getInt();
+		snapshot.vacated = buffer.getInt();
+		snapshot.applePlaced = buffer.get() != 0;
+		snapshot.appleRow = buffer.getInt();
+		snapshot.appleColumn = buffer.getInt();
+		snapshot.paintedHeadX = buffer.getInt();
+		snapshot.paintedHeadY = buffer.getInt();
+		snapshot.paintedBodySize = buffer.getInt();
+		snapshot.paintedAppleX = buffer.getInt();
+		snapshot.paintedAppleY = buffer.getInt();
+		
+		snapshot.bodySize = buffer.getInt();
+		buffer.asIntBuffer().get(snapshot.body, 0, snapshot.bodySize);
+		buffer.position(buffer.position() + 4 * snapshot.bodySize);
+		
+		snapshot.freeSize = buffer.getInt();
+		buffer.asIntBuffer().get(snapshot.free, 0, snapshot.freeSize);
+		buffer.position(buffer.position() + 4 * snapshot.freeSize);
+		
+		buffer.get(snapshot.cells);
+		return snapshot;
+	}
+}
@@ -0,0 +1,45 @@
+package application;
+
+public class BreadthFirstStrategy extends PathfindingStrategy {
+	// The locations waiting to be visited, in the order they were reached
+	private int queue[] = new int[0];
+	
+	@Override
+	protected void allocate(int cells) {
+		super.allocate(cells);
+		this.queue = new int[cells];
+	}
+	
+	/**
+	 * Visits locations in order of their distance from the start,
+	 * so the first path to reach the goal is a shortest one.
+	 */
+	@Override
+	protected boolean search(Board board, int start, int goal) {
+		int queue[] = this.queue;
+		int visited[] = this.visited;
+		int parent[] = this.parent;
+		int offsets[] = this.offsets;
+		int search = this.search;
+		
+		int first = 0;
+		int last = 0;
+		queue[last++] = start;
+		visited[start] = search;
+		
+		while (first < last) {
+			int cell = queue[first++];
+			for (int offset : offsets) {
+				int next = cell + offset;
+				if (visited[next] == search || !board.isValid(next)) continue;
+				
+				visited[next] = search;
+				parent[next] = cell;
+				if (next == goal) return true;
+				queue[last++] = next;
+			}
+		}
+		
+		return false;
+	}
+}
@@ -0,0 +1,174 @@
+package application;
+
+import java.util.Arrays;
+
+import application.Board.Direction;
+
+public class CachedPathStrategy implements MovementStrategy {
+	// Finds a new path when the planned one can't be used
+	private final PathfindingStrategy pathfinder;
+	
+	// Used when there is no apple
+	private final MovementStrategy fallback = new GreedyStrategy();
+	
+	// The planned path as packed locations, from the first step to the apple
+	private int path[] = new int[0];
+	
+	// The length of the planned path
+	private int length = 0;
+	
+	// The position of the next step on the planned path
+	private int next = 0;
+	
+	// The packed location the planned path starts from
+	private int start = -1;
+	
+	// The packed location of the apple the path leads to
+	private int goal = -1;
+	
+	// The dimension of the board the path was planned on
+	private int dimension = 0;
+	
+	// The plan each location was last on the path of, so the array never has to be cleared
+	private int planned[] = new int[0];
+	
+	// Where each location is on the path of the plan it was last on
+	private int position[] = new int[0];
+	
+	// The current plan
+	private int plan = 0;
+	
+	// The number of moves that followed the planned path
+	private long hits = 0;
+	
+	// The number of moves that needed a new path
+	private long misses = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param pathfinder 	Finds a new path when the planned one can't be used.
+	 */
+	CachedPathStrategy(PathfindingStrategy pathfinder) {
+		this.pathfinder = pathfinder;
+	}
+	
+	/**
+	 * Returns the number of moves that followed the planned path.
+	 * 
+	 * @return long
+	 */
+	public long hits() {
+		return this.hits;
+	}
+	
+	/**
+	 * Returns the number of moves that needed a new path.
+	 * 
+	 * @return long
+	 */
+	public long misses() {
+		return this.misses;
+	}
+	
+	/**
+	 * Follows the planned path to the apple.
+	 * 
+	 * Plans a new path if the apple moved, the snake left the path,
+	 * or anything is in the way on the rest of the path.
+	 * 
+	 * @param board 		The board the snake is on.
+	 * @return Direction
+	 */
+	public Direction nextDirection(Board board) {
+		Apple apple = board.apple();
+		if (apple.location == null) return this.fallback.nextDirection(board);
+		
+		Snake snake = board.snake();
+		int dimension = board.dimension();
+		int head = snake.head.x * dimension + snake.head.y;
+		int goal = apple.location.x * dimension + apple.location.y;
+		
+		if (pathIsClear(board, head, goal)) {
+			this.hits++;
+		} else {
+			this.misses++;
+			plan(board, head, goal);
+			if (this.length <= 0) return this.pathfinder.escape(board);
+		}
+		
+		return this.pathfinder.direction(head, this.path[this.next++]);
+	}
+	
+	/**
+	 * Returns true if the rest of the planned path can still be followed.
+	 * 
+	 * The path was clear when planned, and only the locations the snake
+	 * takes up can block it: the head, which moved along the path,
+	 * and the end of the body, shown again when the snake grows.
+	 * So only the end of the body is checked against the rest of the path.
+	 * 
+	 * @param board 	The board the snake is on.
+	 * @param head 		The packed location of the snake's head.
+	 * @param goal 		The packed location of the apple.
+	 * @return boolean
+	 */
+	private boolean pathIsClear(Board board, int head, int goal) {
+		if (goal != this.goal || board.dimension() != this.dimension || this.next >= this.length) return false;
+		
+		// the snake has to be where the path left it
+		int previous = this.next == 0 ? this.start : this.path[this.next - 1];
+		if (previous != head) return false;
+		
+		// the end of the body may not have been shown again on the rest of the path
+		SnakeBody body = board.snake().body;
+		return body.size() == 0 || !blocks(board, body.cell(body.size() - 1));
+	}
+	
+	/**
+	 * Returns true if a location is on the rest of the planned path,
+	 * and the snake can't move onto it anymore.
+	 * 
+	 * @param board 	The board the snake is on.
+	 * @param cell 		The packed location.
+	 * @return boolean
+	 */
+	private boolean blocks(Board board, int cell) {
+		return this.planned[cell] == this.plan && this.position[cell] >= this.next && !board.isValid(cell);
+	}
+	
+	/**
+	 * Plans a new path from the snake's head to the apple.
+	 * 
+	 * @param board 	The board the snake is on.
+	 * @param head 		The packed location of the snake's head.
+	 * @param goal 		The packed location of the apple.
+	 */
+	private void plan(Board board, int head, int goal) {
+		this.dimension = board.dimension();
+		int cells = this.dimension * this.dimension;
+		if (this.path.length < cells) {
+			this.path = new int[cells];
+			this.planned = new int[cells];
+			this.position = new int[cells];
+			this.plan = 0;
+		}
+		
+		this.length = this.pathfinder.findPath(board, this.path);
+		this.next = 0;
+		this.start = head;
+		this.goal = goal;
+		
+		// mark the locations on the path, so checking one doesn't need to look through it,
+		// starting counting again once every plan number was used
+		this.plan++;
+		if (this.plan == Integer.MAX_VALUE) {
+			Arrays.fill(this.planned, 0);
+			this.plan = 1;
+		}
+		for (int i = 0; i < this.length; i++) {
+			this.planned[this.path[i]] = this.plan;
+			this.position[this.path[i]] = i;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package application;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FrameBuffer {
+	// Marks the frame in between as not yet taken by the reader
+	private static final int FRESH = 4;
+	
+	// Picks the frame out of the state
+	private static final int INDEX = 3;
+	
+	// The three frames
+	private final BoardFrame frames[] = new BoardFrame[3];
+	
+	// The frame in between, and whether it's fresh
+	private final AtomicInteger state = new AtomicInteger(1);
+	
+	// The frame the simulation writes
+	private int back = 0;
+	
+	// The frame the renderer reads
+	private int front = 2;
+	
+	// Counts the frames published
+	private long published = 0;
+	
+	// The location of the snake's head in the last frame published, or -1 before the first
+	private int headRow = -1;
+	private int headColumn = -1;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Creates the frames for a board of the given dimension.
+	 * 
+	 * Hands frames from the thread simulating a board to the thread drawing it,
+	 * without either waiting on the other. The simulation writes one frame,
+	 * the renderer reads another, and the latest published frame is in between.
+	 * Publishing and taking the latest frame each swap a frame with the one in between.
+	 * 
+	 * @param dimension 	The dimension of the board, including the border.
+	 */
+	FrameBuffer(int dimension) {
+		for (int i = 0; i < this.frames.length; i++) {
+			this.frames[i] = new BoardFrame(dimension);
+		}
+	}
+	
+	/**
+	 * Copies the board into the frame the simulation writes,
+	 * then makes it the latest frame.
+	 * 
+	 * Only call from the thread simulating the board.
+	 * 
+	 * @param board 	The board to publish.
+	 */
+	public void publish(Board board) {
+		BoardFrame frame = this.frames[this.back];
+		board.copyTo(frame);
+		frame.sequence = ++this.published;
+		frame.publishedAt = System.nanoTime();
+		
+		// remember where the head came from, so it can be drawn moving between tiles
+		frame.fromRow = this.headRow < 0 ? frame.headRow : this.headRow;
+		frame.fromColumn = this.headColumn < 0 ? frame.headColumn : this.headColumn;
+		this.headRow = frame.headRow;
+		this.headColumn = frame.headColumn;
+		this.back = this.state.getAndSet(this.back | FRESH) & INDEX;
+	}
+	
+	/**
+	 * Returns the latest published frame.
+	 * 
+	 * The frame stays the same until the next call.
+	 * Only call from the thread drawing the board.
+	 * 
+	 * @return BoardFrame
+	 */
+	public BoardFrame latest() {
+		if ((this.state.get() & FRESH) != 0) {
+			this.front = this.state.getAndSet(this.front) & INDEX;
+		}
+		return this.frames[this.front];
+	}
+}
@@ -0,0 +1,37 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("application.Frame")
+@Label("Frame")
+@Category("Snake")
+@Description("Drawing one frame of the board on the JavaFX thread")
+@StackTrace(false)
+public class FrameEvent extends Event {
+	@Label("Board Size")
+	@Description("The number of rows and columns inside the border")
+	public int boardSize;
+	
+	@Label("Snake Length")
+	public int length;
+	
+	@Label("Sequence")
+	@Description("The number of frames published before this one")
+	public long sequence;
+	
+	@Label("Tiles Drawn")
+	public int tilesDrawn;
+	
+	@Label("Repaint All")
+	@Description("Whether every tile was drawn, because the canvas was resized or a color changed")
+	public boolean repaintAll;
+	
+	@Label("Backend")
+	@Description("PIXELS if the frame was written as pixels, CANVAS if drawn one tile at a time")
+	public String backend;
+}
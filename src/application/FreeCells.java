@@ -0,0 +1,120 @@
+package application;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class FreeCells {
+	// The free packed locations, in no particular order
+	private int cells[];
+	
+	// The position of each location in cells, or -1 if it isn't free
+	private int position[];
+	
+	// The number of free locations
+	private int size;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Starts out with every location free.
+	 * 
+	 * @param count 	The number of locations on the board.
+	 */
+	FreeCells(int count) {
+		this.cells = new int[count];
+		this.position = new int[count];
+		for (int cell = 0; cell < count; cell++) {
+			this.cells[cell] = cell;
+			this.position[cell] = cell;
+		}
+		this.size = count;
+	}
+	
+	/**
+	 * Returns the number of free locations.
+	 * 
+	 * @return int
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns true if a location is free.
+	 * 
+	 * @param cell 		The packed location.
+	 * @return boolean
+	 */
+	public boolean contains(int cell) {
+		return this.position[cell] >= 0;
+	}
+	
+	/**
+	 * Marks a location as free.
+	 * 
+	 * @param cell 		The packed location.
+	 */
+	public void add(int cell) {
+		if (this.position[cell] >= 0) return;
+		
+		this.cells[this.size] = cell;
+		this.position[cell] = this.size;
+		this.size++;
+	}
+	
+	/**
+	 * Marks a location as taken,
+	 * moving the last free location into its place.
+	 * 
+	 * @param cell 		The packed location.
+	 */
+	public void remove(int cell) {
+		int i = this.position[cell];
+		if (i < 0) return;
+		
+		this.size--;
+		int last = this.cells[this.size];
+		this.cells[i] = last;
+		this.position[last] = i;
+		this.position[cell] = -1;
+	}
+	
+	/**
+	 * Copies the free locations into an array, in order.
+	 * 
+	 * @param into 		The array to copy into, with room for every free location.
+	 * @return int 		The number of locations copied.
+	 */
+	public int copyTo(int into[]) {
+		System.arraycopy(this.cells, 0, into, 0, this.size);
+		return this.size;
+	}
+	
+	/**
+	 * Replaces the free locations with the locations of an array,
+	 * keeping their order so random picks come out the same.
+	 * 
+	 * @param from 		The free packed locations.
+	 * @param size 		The number of free locations.
+	 */
+	public void restore(int from[], int size) {
+		System.arraycopy(from, 0, this.cells, 0, size);
+		this.size = size;
+		
+		Arrays.fill(this.position, -1);
+		for (int i = 0; i < size; i++) {
+			this.position[from[i]] = i;
+		}
+	}
+	
+	/**
+	 * Returns a random free location.
+	 * 
+	 * @param generator 	The random number generator to use.
+	 * @return int 			The packed location, or -1 if no location is free.
+	 */
+	public int random(Random generator) {
+		if (this.size == 0) return -1;
+		return this.cells[generator.nextInt(this.size)];
+	}
+}
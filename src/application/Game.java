@@ -1,6 +1,7 @@
 // G Roques E01
 package application;
 	
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.event.EventHandler;
@@ -15,10 +16,11 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.Random;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.FutureTask;
 import java.awt.Point;
 
 import application.Board;
@@ -27,6 +29,8 @@ public class Game extends Application {
 	public Stage primaryStage;
 	public Group root;
 	public Board board;
+	public BoardRenderer renderer;
+	public FrameBuffer frames;
 	public Scene scene;
 	
 	public enum GameType {
@@ -37,13 +41,118 @@ public class Game extends Application {
 	
 	// The speed at which the snake moves to the apple (in milliseconds)
 	private final int ANIMATION_SPEED = 600;
+	
+	// The number of moves per second, set with --tick-rate=<number> or --tick-rate=max
+	private double tickRate = 1000.0 / (ANIMATION_SPEED/2);
+	
+	// The number of frames drawn per second
+	public RateCounter frameRate = new RateCounter();
+	
+	// The number of rows and columns inside the border, set with --size=<number>
+	private int boardSize = 10;
+	
+	// How the board is drawn, set with --renderer=canvas, --renderer=pixels or --renderer=auto
+	private BoardRenderer.Backend backend = BoardRenderer.Backend.AUTO;
+	
+	// The size of the canvas, set with --canvas=<width>x<height>
+	private double canvasWidth = BoardRenderer.CANVAS_SIZE;
+	private double canvasHeight = BoardRenderer.CANVAS_SIZE;
+	
+	// Picks random apple locations, seeded with --seed=<number> if given
+	private Random generator = new Random();
+	
+	// Records the game to the file given with --record=<file>, or null if not recording
+	private ReplayRecorder recorder;
+	
+	// Whether the game ended, so it only ends once. Only used on the game loop thread
+	private boolean over = false;
+	
+	// The sequence of the last frame drawn, and whether the head was drawn all the way on its tile
+	private long drawnSequence = 0;
+	private boolean drawnArrived = true;
 
 	
 	@Override
-	public void start(Stage primaryStage) {
+	public void start(Stage primaryStage) throws IOException {
+		// pick a seed when none is given, so the game can still be recorded
+		String seed = getParameters().getNamed().get("seed");
+		long seedValue = seed != null ? Long.parseLong(seed) : new Random().nextLong();
+		generator.setSeed(seedValue);
+		
+		String rate = getParameters().getNamed().get("tick-rate");
+		if (rate != null) tickRate = rate.equals("max") ? GameLoop.AS_FAST_AS_POSSIBLE : Double.parseDouble(rate);
+		if (!(tickRate >= 1)) throw new IllegalArgumentException("Tick rate must be at least 1 per second: " + rate);
+		
+		String size = getParameters().getNamed().get("size");
+		if (size != null) boardSize = Integer.parseInt(size);
+		
+		String drawing = getParameters().getNamed().get("renderer");
+		if (drawing != null) backend = BoardRenderer.Backend.valueOf(drawing.toUpperCase());
+		
+		String canvas = getParameters().getNamed().get("canvas");
+		if (canvas != null) {
+			String sides[] = canvas.split("x");
+			canvasWidth = Double.parseDouble(sides[0]);
+			canvasHeight = Double.parseDouble(sides[sides.length - 1]);
+		}
+		
 		this.primaryStage = primaryStage;
+		
+		// expose the tick metrics over JMX and in the log, if enabled with -Dsnake.metrics=true
+		TickMetrics.register();
+		
+		// play back a recorded game instead, if given with --replay=<file>
+		String replay = getParameters().getNamed().get("replay");
+		if (replay != null) {
+			primaryStage.setTitle("Replaying " + replay);
+			playReplay(primaryStage, new ReplayPlayer(Paths.get(replay)));
+			return;
+		}
+		
 		primaryStage.setTitle("Place apples and feed your snake");
 		initializeGame(primaryStage);
+		
+		String record = getParameters().getNamed().get("record");
+		if (record != null) recorder = new ReplayRecorder(Paths.get(record), board.dimension(), seedValue);
+	}
+	
+	/**
+	 * Finishes the recording, if there is one, when the game exits.
+	 */
+	@Override
+	public void stop() throws Exception {
+		if (recorder == null) return;
+		
+		// the recording is written on the game loop thread
+		FutureTask<Void> closing = new FutureTask<>(() -> {
+			recorder.close();
+			return null;
+		});
+		GameLoop.shared().execute(closing);
+		closing.get();
+	}
+	
+	/**
+	 * Shows a recorded game, played at the tick rate.
+	 * 
+	 * @param primaryStage
+	 * @param replay 	The recorded game.
+	 */
+	public void playReplay(Stage primaryStage, ReplayPlayer replay) {
+	    root = new Group();
+	    board = replay.board();
+	    renderer = new BoardRenderer(board, canvasWidth, canvasHeight);
+	    renderer.setBackend(backend);
+	    frames = new FrameBuffer(board.dimension());
+	    scene = new Scene(root);
+	    
+	    renderer.display();
+	    startRendering();
+	    root.getChildren().add(renderer.getCanvas());
+	    primaryStage.setScene(scene);
+	    primaryStage.show();
+	    
+	    replay.start(GameLoop.shared(), tickRate, frames);
 	}
 	
 	/**
@@ -52,7 +161,10 @@ public class Game extends Application {
 	 */
 	public void initializeGame(Stage primaryStage) {
 	    root = new Group();
-	    board = new Board();
+	    board = new Board(boardSize);
+	    renderer = new BoardRenderer(board, canvasWidth, canvasHeight);
+	    renderer.setBackend(backend);
+	    frames = new FrameBuffer(board.dimension());
 	    scene = new Scene(root);
 	    getGameType();
 	    
@@ -62,16 +174,46 @@ public class Game extends Application {
 	    // if game type is random pick, then listen for when the user presses the space bar
 	    if (gameType == GameType.RANDOM_PICK) addKeyPressHandlerToScene();
 	    
-	    board.display();
+	    renderer.display();
+	    startRendering();
 	    
 	    // set the root node to the canvas
-	    root.getChildren().add(board.getCanvas());
+	    root.getChildren().add(renderer.getCanvas());
 	    
 	    // show the stage
 	    primaryStage.setScene(scene);
 	    primaryStage.show();
 	}
 	
+	/**
+	 * Draws the latest frame of the board once per JavaFX pulse.
+	 * 
+	 * The board is changed on the game loop thread, which publishes frames
+	 * without waiting on the JavaFX thread, so neither holds up the other.
+	 * Between moves, the snake's head is drawn sliding to its tile.
+	 */
+	public void startRendering() {
+		final double step = tickRate == GameLoop.AS_FAST_AS_POSSIBLE ? 0 : 1e9 / tickRate;
+		
+		new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				BoardFrame frame = frames.latest();
+				
+				// how far the head is between tiles, by the time since the move
+				double progress = step == 0 ? 1 : Math.min(1, (now - frame.publishedAt) / step);
+				
+				// nothing changed since the head arrived on its tile
+				if (frame.sequence == drawnSequence && drawnArrived) return;
+				drawnSequence = frame.sequence;
+				drawnArrived = progress >= 1;
+				
+				renderer.display(frame, progress);
+				frameRate.count(now);
+			}
+		}.start();
+	}
+	
 	/**
 	 * Displays a confirmation window asking the user to pick a game type.
 	 */
@@ -113,17 +255,11 @@ public class Game extends Application {
 	public EventHandler<MouseEvent> handleClick() {
 		return new EventHandler<MouseEvent>() {
 	        public void handle(MouseEvent mouseEvent) {
-	        	// prevent placing two apples
-	    	    if (!Apple.placed) {
-	    	    	// determine where the user clicked
-	    	    	Point click = getClickLocation(mouseEvent);
-	            	
-	            	// make sure the apple is within the bounds of the board and not on the snake
-	            	if (!board.inBounds(click) || board.isSnake(click)) return;
-	            	
-	            	// place the apple where the user clicked
-	            	placeApple(click);
-	            }
+	        	// determine where the user clicked
+	        	Point click = getClickLocation(mouseEvent);
+	        	
+	        	// place the apple where the user clicked
+	        	placeApple(click);
 	        }
 		};
 	}
@@ -135,9 +271,8 @@ public class Game extends Application {
 	 * @return Point
 	 */
 	public Point getClickLocation(MouseEvent mouseEvent) {
-		double canvasWidth = board.getCanvas().getWidth();
-    	int x = (int) ((mouseEvent.getX() / canvasWidth) * board.dimension());
-    	int y = (int) ((mouseEvent.getY() / canvasWidth) * board.dimension());
+    	int x = renderer.rowAt(mouseEvent.getX());
+    	int y = renderer.columnAt(mouseEvent.getY());
     	return new Point(x, y);
 	}
 	
@@ -158,7 +293,7 @@ public class Game extends Application {
 		return new EventHandler<KeyEvent>() {
 			@Override
 			public void handle(KeyEvent event) {
-				if (event.getCode() == KeyCode.SPACE && !Apple.placed) {
+				if (event.getCode() == KeyCode.SPACE) {
 					placeRandomApple();
 				}
 			}
@@ -169,41 +304,138 @@ public class Game extends Application {
 	 * Generates a random point on the board to place the apple.
 	 * 
 	 * Makes sure the point is within the bounds of the board and
-	 * is not on the snake.
+	 * is not on the snake. Ends the game as won if the snake fills the board.
 	 */
 	public void placeRandomApple() {
-		// generate a randomly valid point
-		Point point;
-		do {
-			Random generator = new Random();
-			int x = generator.nextInt(board.dimension());
-			int y = generator.nextInt(board.dimension());
-			point = new Point(x, y);
-		} while (!board.inBounds(point) || board.isSnake(point));
-		
-		// place the apple at the point
-		placeApple(point);
+		GameLoop.shared().execute(() -> {
+			// prevent placing two apples, or placing one once the game is over
+			if (over || board.apple().placed) return;
+			
+			// there is nowhere left to place an apple once the snake fills the board
+			if (board.isFull()) {
+				endGame(true);
+				return;
+			}
+			
+			// generate a randomly valid point, and place the apple there
+			dropApple(board.randomFreePoint(generator));
+		});
 	}
 
 	/**
 	 * Places an apple on a point within the board.
 	 * 
+	 * The board is only changed on the game loop thread.
+	 * 
 	 * @param location 	A point on the board
 	 */
 	public void placeApple(Point location) {
+		GameLoop.shared().execute(() -> {
+			// prevent placing two apples, or placing one once the game is over
+			if (over || board.apple().placed) return;
+			
+			// make sure the apple is within the bounds of the board and not on the snake
+			if (!board.inBounds(location) || board.isSnake(location)) return;
+			
+			dropApple(location);
+		});
+	}
+	
+	/**
+	 * Drops the apple on the board, and starts moving the snake to it.
+	 * 
+	 * Only call from the game loop thread.
+	 * 
+	 * @param location 	A free point on the board
+	 */
+	private void dropApple(Point location) {
 		// place apple on board
     	board.apple().place(location);
+    	record(location);
+    	
+    	ApplePlacedEvent placed = new ApplePlacedEvent();
+    	if (placed.shouldCommit()) {
+    		placed.boardSize = board.dimension() - 2;
+    		placed.length = board.snake().length;
+    		placed.row = location.x;
+    		placed.column = location.y;
+    		placed.commit();
+    	}
     	
-    	// update and display the board
-    	board.updateAndDisplay(true);
+    	// update the board, and hand it to the JavaFX thread to draw
+    	board.update(true);
+    	frames.publish(board);
     	
-    	// if the snake is trapped, then alert the user they lost
-    	if (board.snakeIsTrapped()) createLoseAlert();
+    	// if the snake is trapped, headed into a dead end or cut off from the apple, then the user lost,
+    	// and the snake stays where it is behind the alert
+    	if (board.snakeWillBeTrapped()) {
+    		endGame(false);
+    		return;
+    	}
     	
     	// move the snake to the apple
     	moveSnakeToApple();
 	}
 	
+	/**
+	 * Records an apple placed on the board, if the game is being recorded.
+	 * 
+	 * Stops recording if the recording can't be written.
+	 * 
+	 * @param location 	The point the apple was placed on
+	 */
+	private void record(Point location) {
+		if (recorder == null) return;
+		
+		try {
+			recorder.apple(location.x, location.y);
+		} catch (IOException e) {
+			System.err.println("Stopped recording: " + e.getMessage());
+			recorder = null;
+		}
+	}
+	
+	/**
+	 * Ends the game: records how it ended, and alerts the user on the JavaFX thread.
+	 * 
+	 * Only ends the game once, as a loss can be seen coming and then happen.
+	 * No apples can be placed after, so the snake stops for good.
+	 * Only call from the game loop thread.
+	 * 
+	 * @param won 	True if the user won, false if the snake got trapped.
+	 */
+	public void endGame(boolean won) {
+		if (over) return;
+		over = true;
+		
+		GameOverEvent.record(board, won);
+		
+		if (won) {
+			int length = board.snake().length;
+			Platform.runLater(() -> createWinAlert(length));
+		} else {
+			Platform.runLater(() -> createLoseAlert());
+		}
+	}
+	
+	/**
+	 * Alert the user they won, then exit.
+	 * 
+	 * @param length 	The length the snake grew to.
+	 */
+	public void createWinAlert(int length) {
+		Alert alert = new Alert(AlertType.INFORMATION);
+		alert.setTitle("You Win!");
+		alert.setHeaderText("You Win!");
+		alert.setContentText("Congratulations! Your snake grew to length " + length + "!");
+		
+		alert.showAndWait().ifPresent(response -> {
+			if (response == ButtonType.OK) {
+				Platform.exit();
+		    }
+		});
+	}
+	
 	/**
 	 * Alert the user they lost, then exit.
 	 */
@@ -221,12 +453,14 @@ public class Game extends Application {
 	}
 	
 	/**
-	 * Creates a timer that moves the snake closer to the apple each interval.
+	 * Moves the snake closer to the apple each interval,
+	 * on the game loop shared by every game.
 	 */
 	public void moveSnakeToApple() {
-    	Timer timer = new Timer();
-    	TimerTask moveSnakeToApple = new MoveSnakeToApple(timer, board);	            	
-    	timer.scheduleAtFixedRate(moveSnakeToApple, ANIMATION_SPEED/2, ANIMATION_SPEED/2);
+    	MoveSnakeToApple moveSnakeToApple = new MoveSnakeToApple(board, frames);
+    	moveSnakeToApple.recorder = recorder;
+    	moveSnakeToApple.game = this;
+    	moveSnakeToApple.start(GameLoop.shared(), tickRate);
 	}
 	
 	public static void main(String[] args) {
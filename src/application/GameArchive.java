@@ -0,0 +1,157 @@
+package application;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GameArchive implements AutoCloseable {
+	// Starts every archive file, "SNKA"
+	public static final int MAGIC = 0x534E4B41;
+	
+	// The version of the file format
+	public static final int VERSION = 1;
+	
+	// The size of the file header: magic, version, number of games, end of the last game
+	public static final int HEADER_SIZE = 32;
+	
+	// The size of a game without its moves: seed, ticks, length, outcome, number of moves
+	public static final int RECORD_SIZE = 32;
+	
+	// The size of each part of the file mapped at once
+	static final int CHUNK_SIZE = 64 << 20;
+	
+	// Where each field of the header is, from the start of the file
+	static final int COUNT = 8;
+	static final int END = 16;
+	
+	// Where each field of a game is, from the start of the game
+	static final int SEED = 0;
+	static final int TICKS = 8;
+	static final int LENGTH = 16;
+	static final int OUTCOME = 20;
+	static final int MOVES = 24;
+	
+	// The file the games are written to
+	private final FileChannel channel;
+	
+	// The header of the file, kept up to date after every game
+	private final MappedByteBuffer header;
+	
+	// The part of the file being written
+	private MappedByteBuffer chunk;
+	
+	// Where the mapped part starts in the file
+	private long chunkStart;
+	
+	// Where the next game is written in the file
+	private long end = HEADER_SIZE;
+	
+	// The number of games written
+	private long count = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Starts an archive file, replacing the file if it exists.
+	 * 
+	 * @param path 		The file to write to.
+	 * @throws IOException
+	 */
+	GameArchive(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.header = this.channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+		this.header.putInt(0, MAGIC);
+		this.header.putInt(4, VERSION);
+		this.header.putLong(COUNT, 0);
+		this.header.putLong(END, HEADER_SIZE);
+		map(0, CHUNK_SIZE);
+	}
+	
+	/**
+	 * Returns the number of games written.
+	 * 
+	 * @return long
+	 */
+	public synchronized long count() {
+		return this.count;
+	}
+	
+	/**
+	 * Appends a game without its moves.
+	 * 
+	 * @param result 	How the game ended.
+	 * @throws IOException
+	 */
+	public void append(GameResult result) throws IOException {
+		append(result, null);
+	}
+	
+	/**
+	 * Appends a game to the archive.
+	 * 
+	 * Safe to call from any number of threads; games are written whole, one at a time.
+	 * The header counts the game as soon as it's written, so the games
+	 * written so far can still be read if the archive is never closed.
+	 * 
+	 * @param result 	How the game ended.
+	 * @param moves 	Every move the snake made, or null to leave them out.
+	 * @throws IOException
+	 */
+	public synchronized void append(GameResult result, MoveStream moves) throws IOException {
+		int moveBytes = moves == null ? 0 : moves.bytes();
+		int size = RECORD_SIZE + ((moveBytes + 7) & ~7);
+		
+		// start a new chunk where the game starts, if the game doesn't fit in this one
+		if (this.end + size > this.chunkStart + this.chunk.capacity()) {
+			map(this.end, Math.max(CHUNK_SIZE, size));
+		}
+		
+		int at = (int) (this.end - this.chunkStart);
+		this.chunk.putLong(at + SEED, result.seed);
+		this.chunk.putLong(at + TICKS, result.ticks);
+		this.chunk.putInt(at + LENGTH, result.length);
+		this.chunk.put(at + OUTCOME, (byte) result.outcome.ordinal());
+		this.chunk.putInt(at + MOVES, moves == null ? 0 : moves.size());
+		
+		if (moveBytes > 0) {
+			this.chunk.position(at + RECORD_SIZE);
+			this.chunk.put(moves.packed(), 0, moveBytes);
+		}
+		
+		this.end += size;
+		this.count++;
+		this.header.putLong(COUNT, this.count);
+		this.header.putLong(END, this.end);
+	}
+	
+	/**
+	 * Maps a part of the file to write to, growing the file if needed.
+	 * 
+	 * @param start 	Where the part starts in the file.
+	 * @param size 		The size of the part.
+	 * @throws IOException
+	 */
+	private void map(long start, int size) throws IOException {
+		this.chunk = this.channel.map(MapMode.READ_WRITE, start, size);
+		this.chunkStart = start;
+	}
+	
+	/**
+	 * Writes the archive to disk, and closes the file.
+	 * 
+	 * The unused end of the last chunk stays in the file, since a file can't be
+	 * cut short while parts of it are still mapped on every system. Readers stop
+	 * at the end of the last game kept in the header.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void close() throws IOException {
+		this.chunk.force();
+		this.header.force();
+		this.channel.close();
+	}
+}
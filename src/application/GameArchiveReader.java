@@ -0,0 +1,220 @@
+package application;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import application.Board.Direction;
+import application.GameResult.Outcome;
+
+public class GameArchiveReader implements AutoCloseable {
+	// The directions of every move, indexed by ordinal
+	private static final Direction DIRECTIONS[] = Direction.values();
+	
+	// The ways a game can end, indexed by ordinal
+	private static final Outcome OUTCOMES[] = Outcome.values();
+	
+	// The file the games are read from
+	private final FileChannel channel;
+	
+	// The number of games in the file
+	private final long count;
+	
+	// Where the last game ends in the file
+	private final long end;
+	
+	// The part of the file being read
+	private MappedByteBuffer chunk;
+	
+	// Where the mapped part starts in the file
+	private long chunkStart;
+	
+	// Where the current game starts in the mapped part, and where the next one starts in the file
+	private int at = -1;
+	private long next = GameArchive.HEADER_SIZE;
+	
+	// The number of games read so far
+	private long read = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Opens an archive file, positioned before the first game.
+	 * 
+	 * @param path 		The file to read.
+	 * @throws IOException
+	 */
+	GameArchiveReader(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		
+		if (this.channel.size() < GameArchive.HEADER_SIZE) throw new IOException("Not a game archive: " + path);
+		MappedByteBuffer header = this.channel.map(MapMode.READ_ONLY, 0, GameArchive.HEADER_SIZE);
+		if (header.getInt(0) != GameArchive.MAGIC) throw new IOException("Not a game archive: " + path);
+		if (header.getInt(4) != GameArchive.VERSION) {
+			throw new IOException("Unsupported game archive version " + header.getInt(4) + ": " + path);
+		}
+		
+		// the header counts the games written so far, which are followed by the unused
+		// end of the last chunk, so archives that were never closed can still be read
+		this.count = header.getLong(GameArchive.COUNT);
+		this.end = header.getLong(GameArchive.END);
+		if (this.count < 0 || this.end < GameArchive.HEADER_SIZE || this.end > this.channel.size()) {
+			throw new IOException("Corrupt game archive header, " + this.count + " games ending at " + this.end + ": " + path);
+		}
+	}
+	
+	/**
+	 * Returns the number of games in the archive.
+	 * 
+	 * @return long
+	 */
+	public long count() {
+		return this.count;
+	}
+	
+	/**
+	 * Moves to the next game.
+	 * 
+	 * The fields of the game are read straight from the mapped file, without copying.
+	 * 
+	 * @return boolean 	False if there are no more games.
+	 * @throws IOException 	If the games don't match the header.
+	 */
+	public boolean next() throws IOException {
+		if (this.next >= this.end) {
+			if (this.read != this.count) {
+				throw new IOException("Game archive header counts " + this.count + " games, but " + this.read + " were found");
+			}
+			return false;
+		}
+		if (this.next + GameArchive.RECORD_SIZE > this.end) throw new IOException("Game archive ends inside game " + this.read);
+		
+		// map a new chunk where the game starts, if the game isn't all in this one
+		if (!mapped(this.next, GameArchive.RECORD_SIZE)) map(this.next, GameArchive.RECORD_SIZE);
+		int moves = this.chunk.getInt((int) (this.next - this.chunkStart) + GameArchive.MOVES);
+		long size = GameArchive.RECORD_SIZE + ((((moves + 3L) >>> 2) + 7) & ~7);
+		if (moves < 0 || this.next + size > this.end) throw new IOException("Game archive ends inside game " + this.read);
+		if (!mapped(this.next, size)) map(this.next, size);
+		
+		this.at = (int) (this.next - this.chunkStart);
+		this.next += size;
+		this.read++;
+		return true;
+	}
+	
+	/**
+	 * Returns true if a part of the file is in the mapped chunk.
+	 * 
+	 * @param start 	Where the part starts in the file.
+	 * @param size 		The size of the part.
+	 * @return boolean
+	 */
+	private boolean mapped(long start, long size) {
+		return this.chunk != null && start >= this.chunkStart && start + size <= this.chunkStart + this.chunk.capacity();
+	}
+	
+	/**
+	 * Maps a chunk of the file, starting at a game.
+	 * 
+	 * @param start 	Where the chunk starts in the file.
+	 * @param size 		The least the chunk has to hold.
+	 * @throws IOException
+	 */
+	private void map(long start, long size) throws IOException {
+		long length = Math.min(Math.max(GameArchive.CHUNK_SIZE, size), this.end - start);
+		this.chunk = this.channel.map(MapMode.READ_ONLY, start, length);
+		this.chunkStart = start;
+	}
+	
+	/**
+	 * Returns the seed of the current game.
+	 * 
+	 * @return long
+	 */
+	public long seed() {
+		return this.chunk.getLong(this.at + GameArchive.SEED);
+	}
+	
+	/**
+	 * Returns the number of times the snake moved in the current game.
+	 * 
+	 * @return long
+	 */
+	public long ticks() {
+		return this.chunk.getLong(this.at + GameArchive.TICKS);
+	}
+	
+	/**
+	 * Returns the length of the snake at the end of the current game.
+	 * 
+	 * @return int
+	 */
+	public int length() {
+		return this.chunk.getInt(this.at + GameArchive.LENGTH);
+	}
+	
+	/**
+	 * Returns how the current game ended.
+	 * 
+	 * @return Outcome
+	 */
+	public Outcome outcome() {
+		return OUTCOMES[this.chunk.get(this.at + GameArchive.OUTCOME)];
+	}
+	
+	/**
+	 * Returns the number of moves archived for the current game.
+	 * 
+	 * @return int 	0 if the moves were left out.
+	 */
+	public int moveCount() {
+		return this.chunk.getInt(this.at + GameArchive.MOVES);
+	}
+	
+	/**
+	 * Returns the direction of a move of the current game.
+	 * 
+	 * @param i 			The move, counting from the first.
+	 * @return Direction
+	 */
+	public Direction move(int i) {
+		byte packed = this.chunk.get(this.at + GameArchive.RECORD_SIZE + (i >>> 2));
+		return DIRECTIONS[(packed >>> ((i & 3) << 1)) & 3];
+	}
+	
+	/**
+	 * Returns the current game as a result.
+	 * 
+	 * @return GameResult
+	 */
+	public GameResult result() {
+		return new GameResult(seed(), outcome(), ticks(), length());
+	}
+	
+	/**
+	 * Reads every game left in the archive, and adds up the results.
+	 * 
+	 * @return BatchResult
+	 * @throws IOException
+	 */
+	public BatchResult summarize() throws IOException {
+		BatchResult result = new BatchResult();
+		while (next()) {
+			result.add(result());
+		}
+		return result;
+	}
+	
+	/**
+	 * Closes the file.
+	 * 
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		this.chunk = null;
+		this.channel.close();
+	}
+}
@@ -0,0 +1,285 @@
+package application;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameLoop {
+	// Ticks as fast as possible instead of at a fixed rate
+	public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+	
+	// The most ticks run at once to catch up after the loop fell behind
+	private static final int MAX_CATCH_UP = 5;
+	
+	// How long ticking as fast as possible runs before letting other work on the loop run (in nanoseconds)
+	private static final long SLICE = 1_000_000L;
+	
+	// The loop shared by every game in the JVM
+	private static GameLoop shared;
+	
+	// Runs the ticks of every board on one thread
+	private final ScheduledExecutorService executor;
+	
+	// The number of ticks run
+	private final AtomicLong ticks = new AtomicLong();
+	
+	// The number of ticks dropped because the loop fell too far behind
+	private final AtomicLong overruns = new AtomicLong();
+	
+	// The number of times tickers woke up, and how late in total (in nanoseconds)
+	private final AtomicLong wakeups = new AtomicLong();
+	private final AtomicLong totalLateness = new AtomicLong();
+	
+	// The latest any ticker woke up (in nanoseconds)
+	private volatile long maxLateness = 0;
+	
+	// The number of ticks per second, over every ticker
+	private final RateCounter tickRate = new RateCounter();
+	
+	/**
+	 * Constructor
+	 * 
+	 * Creates the thread the ticks run on. The thread doesn't keep the JVM alive.
+	 */
+	GameLoop() {
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "game-loop");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * Returns the loop shared by every game in the JVM.
+	 * 
+	 * @return GameLoop
+	 */
+	public static synchronized GameLoop shared() {
+		if (shared == null) shared = new GameLoop();
+		return shared;
+	}
+	
+	/**
+	 * Runs a tick at a fixed rate until it's cancelled.
+	 * 
+	 * Ticks are kept to a fixed time step: time is added up as it passes,
+	 * and a tick is run for each full step, so the rate doesn't drift when
+	 * a wake-up is late. Steps missed beyond a few are dropped and counted
+	 * as overruns, instead of running a long burst of ticks.
+	 * 
+	 * @param tick 		The tick to run.
+	 * @param rate 		The number of ticks per second, at least 1, or AS_FAST_AS_POSSIBLE.
+	 * @return Ticker 	Cancel it to stop the ticks.
+	 */
+	public Ticker schedule(Runnable tick, double rate) {
+		if (!(rate >= 1)) throw new IllegalArgumentException("Tick rate must be at least 1 per second: " + rate);
+		
+		Ticker ticker = new Ticker(tick, rate);
+		ticker.start();
+		return ticker;
+	}
+	
+	/**
+	 * Runs a task once on the loop, after the ticks already waiting.
+	 * 
+	 * @param task 		The task to run.
+	 */
+	public void execute(Runnable task) {
+		this.executor.execute(task);
+	}
+	
+	/**
+	 * Keeps track of how late a ticker woke up.
+	 * 
+	 * @param lateness 	The time between when the ticker should have woken up and when it did.
+	 */
+	private void recordLateness(long lateness) {
+		this.wakeups.incrementAndGet();
+		this.totalLateness.addAndGet(Math.max(lateness, 0));
+		if (lateness > this.maxLateness) this.maxLateness = lateness;
+	}
+	
+	/**
+	 * Keeps track of a tick that ran.
+	 * 
+	 * @param now 	When the tick ran.
+	 */
+	private void recordTick(long now) {
+		this.ticks.incrementAndGet();
+		this.tickRate.count(now);
+	}
+	
+	/**
+	 * Returns the number of ticks run.
+	 * 
+	 * @return long
+	 */
+	public long ticks() {
+		return this.ticks.get();
+	}
+	
+	/**
+	 * Returns the number of ticks per second, over every ticker, as of the last full second.
+	 * 
+	 * @return double
+	 */
+	public double tickRate() {
+		return this.tickRate.rate();
+	}
+	
+	/**
+	 * Returns the number of ticks dropped because the loop fell too far behind.
+	 * 
+	 * @return long
+	 */
+	public long overruns() {
+		return this.overruns.get();
+	}
+	
+	/**
+	 * Returns how late tickers woke up on average.
+	 * 
+	 * @return long 	The lateness in nanoseconds.
+	 */
+	public long meanLateness() {
+		long wakeups = this.wakeups.get();
+		return wakeups == 0 ? 0 : this.totalLateness.get() / wakeups;
+	}
+	
+	/**
+	 * Returns the latest any ticker woke up.
+	 * 
+	 * @return long 	The lateness in nanoseconds.
+	 */
+	public long maxLateness() {
+		return this.maxLateness;
+	}
+	
+	/**
+	 * Stops running ticks.
+	 */
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+	
+	public class Ticker implements Runnable {
+		// The tick to run
+		private final Runnable tick;
+		
+		// The time between ticks (in nanoseconds), or 0 to tick as fast as possible
+		private final long step;
+		
+		// The time that passed and hasn't been ticked yet (in nanoseconds)
+		private long accumulator = 0;
+		
+		// When the ticker last woke up, and when it should wake up next (in nanoseconds)
+		private long last;
+		private long due;
+		
+		// The wake-up waiting to run
+		private volatile ScheduledFuture<?> next;
+		
+		// Whether the ticker was cancelled
+		private volatile boolean cancelled = false;
+		
+		/**
+		 * Constructor
+		 * 
+		 * @param tick 		The tick to run.
+		 * @param rate 		The number of ticks per second, or AS_FAST_AS_POSSIBLE.
+		 */
+		Ticker(Runnable tick, double rate) {
+			this.tick = tick;
+			this.step = rate == AS_FAST_AS_POSSIBLE ? 0 : (long) (1e9 / rate);
+		}
+		
+		/**
+		 * Returns the time between ticks.
+		 * 
+		 * @return long 	The step in nanoseconds, or 0 when ticking as fast as possible.
+		 */
+		public long step() {
+			return this.step;
+		}
+		
+		/**
+		 * Stops running the tick.
+		 * 
+		 * Safe to call from the tick itself, or from any other thread.
+		 */
+		public void cancel() {
+			this.cancelled = true;
+			ScheduledFuture<?> next = this.next;
+			if (next != null) next.cancel(false);
+		}
+		
+		/**
+		 * Schedules the first wake-up one step from now.
+		 */
+		private void start() {
+			this.last = System.nanoTime();
+			this.due = this.last + this.step;
+			wakeUp(this.step);
+		}
+		
+		/**
+		 * Schedules the next wake-up.
+		 * 
+		 * @param delay 	The time until the wake-up (in nanoseconds).
+		 */
+		private void wakeUp(long delay) {
+			if (this.cancelled) return;
+			
+			if (delay <= 0) {
+				executor.execute(this);
+			} else {
+				this.next = executor.schedule(this, delay, TimeUnit.NANOSECONDS);
+			}
+		}
+		
+		/**
+		 * Runs the ticks that are due, then goes back to sleep.
+		 */
+		public void run() {
+			if (this.cancelled) return;
+			
+			long now = System.nanoTime();
+			recordLateness(now - this.due);
+			
+			// tick for a while, then let the other work on the loop run
+			if (this.step == 0) {
+				do {
+					this.tick.run();
+					now = System.nanoTime();
+					recordTick(now);
+				} while (!this.cancelled && now - this.due < SLICE);
+				
+				this.due = now;
+				wakeUp(0);
+				return;
+			}
+			
+			// run a tick for each full step that passed
+			this.accumulator += now - this.last;
+			this.last = now;
+			for (int i = 0; i < MAX_CATCH_UP && this.accumulator >= this.step && !this.cancelled; i++) {
+				this.tick.run();
+				this.accumulator -= this.step;
+				recordTick(now);
+			}
+			
+			// drop the steps the loop is too far behind on
+			if (this.accumulator >= this.step) {
+				overruns.addAndGet(this.accumulator / this.step);
+				this.accumulator %= this.step;
+			}
+			
+			// sleep until the next full step
+			long delay = this.step - this.accumulator;
+			this.due = now + delay;
+			wakeUp(delay);
+		}
+	}
+}
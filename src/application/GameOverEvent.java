@@ -0,0 +1,39 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("application.GameOver")
+@Label("Game Over")
+@Category("Snake")
+@Description("The user winning, or losing because the snake got trapped")
+public class GameOverEvent extends Event {
+	@Label("Board Size")
+	@Description("The number of rows and columns inside the border")
+	public int boardSize;
+	
+	@Label("Snake Length")
+	public int length;
+	
+	@Label("Won")
+	public boolean won;
+	
+	/**
+	 * Records the end of a game, if a recording is taking game over events.
+	 * 
+	 * @param board 	The board the game was played on.
+	 * @param won 		True if the user won, false if the snake got trapped.
+	 */
+	public static void record(Board board, boolean won) {
+		GameOverEvent event = new GameOverEvent();
+		if (event.shouldCommit()) {
+			event.boardSize = board.dimension() - 2;
+			event.length = board.snake().length;
+			event.won = won;
+			event.commit();
+		}
+	}
+}
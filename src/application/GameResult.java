@@ -0,0 +1,42 @@
+package application;
+
+public class GameResult {
+	// Ways a game can end
+	public enum Outcome {
+		// The snake grew longer than the winning length, or filled the board
+		WON,
+		
+		// The snake had nowhere left to move
+		TRAPPED,
+		
+		// The snake didn't reach an apple in time
+		STALLED
+	}
+	
+	// The seed the apple locations were generated from
+	public final long seed;
+	
+	// How the game ended
+	public final Outcome outcome;
+	
+	// The number of times the snake moved
+	public final long ticks;
+	
+	// The length of the snake at the end of the game
+	public final int length;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param seed 		The seed the apple locations were generated from.
+	 * @param outcome 	How the game ended.
+	 * @param ticks 	The number of times the snake moved.
+	 * @param length 	The length of the snake at the end of the game.
+	 */
+	GameResult(long seed, Outcome outcome, long ticks, int length) {
+		this.seed = seed;
+		this.outcome = outcome;
+		this.ticks = ticks;
+		this.length = length;
+	}
+}
@@ -0,0 +1,29 @@
+package application;
+
+import application.Board.Direction;
+
+public class GreedyStrategy implements MovementStrategy {
+	/**
+	 * Heads in the general direction of the apple,
+	 * turning clockwise until the snake isn't blocked.
+	 * 
+	 * @param board 		The board the snake is on.
+	 * @return Direction
+	 */
+	public Direction nextDirection(Board board) {
+		// get the direction to the apple
+		Direction direction = board.getDirectionToApple();
+		
+		// find the next location the snake should move to
+		int head = board.headCell();
+		
+		// make sure the next location isn't it's own body or the border,
+		// the border around the board keeps every neighbour of the head on the board
+		while (!board.isValid(head + board.offset(direction))) {
+			if (TickMetrics.ENABLED) TickMetrics.directionRetry();
+			direction = direction.next();
+		}
+		
+		return direction;
+	}
+}
@@ -0,0 +1,141 @@
+package application;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+	// The number of buckets each power of two is split into
+	private static final int SUB_BUCKETS = 4;
+
+	// The number of bits used to pick the bucket within a power of two
+	private static final int SUB_BITS = 2;
+
+	// One bucket for each of the small values, then SUB_BUCKETS for each power of two up to 2^62
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+	// The number of values that fell into each bucket
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	// The number of values, their sum and the largest value
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value.
+	 *
+	 * Values are kept to within a quarter of their size,
+	 * without taking a lock, so any thread can record.
+	 *
+	 * @param value 	The value, like a latency in nanoseconds. Negative values count as 0.
+	 */
+	public void record(long value) {
+		if (value < 0) value = 0;
+		this.counts.incrementAndGet(bucketOf(value));
+		this.count.incrementAndGet();
+		this.total.addAndGet(value);
+
+		long largest = this.max.get();
+		while (value > largest && !this.max.compareAndSet(largest, value)) {
+			largest = this.max.get();
+		}
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 *
+	 * @return long
+	 */
+	public long count() {
+		return this.count.get();
+	}
+
+	/**
+	 * Returns the mean of the values recorded, or 0 if there are none.
+	 *
+	 * @return double
+	 */
+	public double mean() {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) this.total.get() / count;
+	}
+
+	/**
+	 * Returns the largest value recorded.
+	 *
+	 * @return long
+	 */
+	public long max() {
+		return this.max.get();
+	}
+
+	/**
+	 * Returns a value at least as large as the given fraction of the values recorded.
+	 *
+	 * @param fraction 	The fraction of the values, from 0 to 1, like 0.99 for the 99th percentile.
+	 * @return long 	The top of the bucket the percentile falls in, or 0 if there are no values.
+	 */
+	public long percentile(double fraction) {
+		if (fraction < 0 || fraction > 1) throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += this.counts.get(i);
+		}
+		if (count == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts.get(i);
+			if (seen >= rank) return Math.min(highestIn(i), max());
+		}
+		return max();
+	}
+
+	/**
+	 * Forgets every value recorded.
+	 *
+	 * Values recorded while resetting may be partly kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			this.counts.set(i, 0);
+		}
+		this.count.set(0);
+		this.total.set(0);
+		this.max.set(0);
+	}
+
+	/**
+	 * Returns the bucket a value falls in.
+	 *
+	 * Values below SUB_BUCKETS get a bucket each. Larger values are bucketed
+	 * by their highest bit and the SUB_BITS bits below it.
+	 *
+	 * @param value 	The value, at least 0.
+	 * @return int
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Returns the largest value that falls in a bucket.
+	 *
+	 * @param bucket 	The bucket.
+	 * @return long
+	 */
+	static long highestIn(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+
+		int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+		long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BITS);
+		return ((SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width - 1;
+	}
+}
@@ -1,26 +1,35 @@
 package application;
 
-import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
-
-import javafx.application.Platform;
-import javafx.scene.control.Alert;
-import javafx.scene.control.ButtonType;
-import javafx.stage.Stage;
-import javafx.scene.control.Alert.AlertType;
-
-public class MoveSnakeToApple extends TimerTask {
-	public Timer timer;
+public class MoveSnakeToApple implements Runnable {
+	public GameLoop.Ticker ticker;
 	public Board board;
-	public Snake snake;
-	public Apple apple;
+	public FrameBuffer frames;
+	
+	// Records each move, or null if the game isn't being recorded
+	public ReplayRecorder recorder;
+	
+	// The game to tell when the snake gets trapped or grows long enough to win, or null if nobody is told
+	public Game game;
 	
-	MoveSnakeToApple(Timer timer, Board board) {
-		this.timer = timer;
+	// Whether the snake is done moving to the apple
+	private volatile boolean done = false;
+	
+	// The number of moves made toward the apple
+	private int moves = 0;
+	
+	MoveSnakeToApple(Board board, FrameBuffer frames) {
 		this.board = board;
-		this.snake = board.snake();
-		this.apple = board.apple();
+		this.frames = frames;
+	}
+	
+	/**
+	 * Starts moving the snake to the apple on a game loop.
+	 * 
+	 * @param loop 		The game loop to run on.
+	 * @param rate 		The number of moves per second, or GameLoop.AS_FAST_AS_POSSIBLE.
+	 */
+	public void start(GameLoop loop, double rate) {
+		this.ticker = loop.schedule(this, rate);
 	}
 	
 	/**
@@ -28,20 +37,50 @@ public class MoveSnakeToApple extends TimerTask {
 	 * and eats the apple once there.
 	 */
 	public void run() {
-		this.board.moveSnake();
-		this.board.updateAndDisplay();
+		// the snake may already have reached the apple before the ticks were cancelled
+		if (this.done) return;
+		
+		// a trapped snake can't move, and would hold up every other game on the loop
+		if (this.board.snakeIsTrapped()) {
+			cancel();
+			
+			// end the game where the user can see it, instead of leaving it frozen
+			if (this.game != null) this.game.endGame(false);
+			return;
+		}
+		
+		TickEvent event = new TickEvent();
+		event.begin();
+		
+		// move the snake, and eat the apple if the snake reaches it
+		boolean ateApple = this.board.tick();
+		if (this.recorder != null) this.recorder.tick();
+		this.moves++;
+		
+		// hand what the board looks like to the JavaFX thread to draw
+		this.frames.publish(this.board);
+		
+		event.end();
+		if (event.shouldCommit()) {
+			event.boardSize = this.board.dimension() - 2;
+			event.length = this.board.snake().length;
+			event.direction = this.board.lastDirection().name();
+			event.ateApple = ateApple;
+			event.commit();
+		}
     	
-		// if the snake reaches the apple's location
-    	if (this.snake.head.equals(this.apple.location)) {
-    		// cancel the timer
-    		cancelTimer();
-    		
-    		// eat the apple
-    		this.snake.eatApple();
-    		Apple.placed = false;
+		// if the snake ate the apple
+    	if (ateApple) {
+    		AppleEatenEvent eaten = new AppleEatenEvent();
+    		if (eaten.shouldCommit()) {
+    			eaten.boardSize = this.board.dimension() - 2;
+    			eaten.length = this.board.snake().length;
+    			eaten.moves = this.moves;
+    			eaten.commit();
+    		}
     		
-    		// update and display the board
-    		this.board.updateAndDisplay(true);
+    		// stop moving
+    		cancel();
     		
     		// check to see if the user won
     		checkForWin();
@@ -49,39 +88,20 @@ public class MoveSnakeToApple extends TimerTask {
 	}
 
 	/**
-	 * Cancels the timer.
+	 * Stops moving the snake.
 	 */
-	public void cancelTimer() {
-		this.timer.cancel();
-		this.timer.purge();
+	public void cancel() {
+		this.done = true;
+		if (this.ticker != null) this.ticker.cancel();
 	}
 	
 	
 	/**
-	 * If snake length exceeds 10, then alert the user they won.
-	 * 
-	 * Use Platform.runLater() to execute the alert on the JavaFX thread,
-	 * instead of the Timer thread.
+	 * If snake length exceeds 10, or the snake fills the board, then end the game as won.
 	 */
 	public void checkForWin() {
-		if (this.board.snake().length > 10) {
-			Platform.runLater(() -> createWinAlert());
+		if ((this.board.snake().length > 10 || this.board.isFull()) && this.game != null) {
+			this.game.endGame(true);
 		}
 	}
-	
-	/**
-	 * Alert the user they won, then exit.
-	 */
-	public void createWinAlert() {
-		Alert alert = new Alert(AlertType.INFORMATION);
-		alert.setTitle("You Win!");
-		alert.setHeaderText("You Win!");
-		alert.setContentText("Congratulations! Your snake grew to length " + this.board.snake().length + "!");
-		
-		alert.showAndWait().ifPresent(response -> {
-			if (response == ButtonType.OK) {
-				Platform.exit();
-		    }
-		});
-	}
 }
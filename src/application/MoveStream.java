@@ -0,0 +1,76 @@
+package application;
+
+import java.util.Arrays;
+
+import application.Board.Direction;
+
+public class MoveStream {
+	// The directions of every move, indexed by ordinal
+	private static final Direction DIRECTIONS[] = Direction.values();
+	
+	// The moves, packed four to a byte, two bits each
+	private byte moves[] = new byte[64];
+	
+	// The number of moves
+	private int size = 0;
+	
+	/**
+	 * Returns the number of moves.
+	 * 
+	 * @return int
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns the direction of a move.
+	 * 
+	 * @param i 			The move, counting from the first.
+	 * @return Direction
+	 */
+	public Direction direction(int i) {
+		return DIRECTIONS[(this.moves[i >>> 2] >>> ((i & 3) << 1)) & 3];
+	}
+	
+	/**
+	 * Adds a move to the end of the stream.
+	 * 
+	 * @param direction 	The direction of the move.
+	 */
+	public void add(Direction direction) {
+		if ((this.size >>> 2) == this.moves.length) {
+			this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+		}
+		this.moves[this.size >>> 2] |= direction.ordinal() << ((this.size & 3) << 1);
+		this.size++;
+	}
+	
+	/**
+	 * Removes every move, keeping the space for the next ones.
+	 */
+	public void clear() {
+		Arrays.fill(this.moves, 0, (this.size + 3) >>> 2, (byte) 0);
+		this.size = 0;
+	}
+	
+	/**
+	 * Returns the number of bytes the moves are packed into.
+	 * 
+	 * @return int
+	 */
+	public int bytes() {
+		return (this.size + 3) >>> 2;
+	}
+	
+	/**
+	 * Returns the packed moves, four to a byte, first move in the lowest bits.
+	 * 
+	 * Only the first bytes() bytes are moves.
+	 * 
+	 * @return byte[]
+	 */
+	byte[] packed() {
+		return this.moves;
+	}
+}
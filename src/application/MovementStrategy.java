@@ -0,0 +1,17 @@
+package application;
+
+import application.Board.Direction;
+
+public interface MovementStrategy {
+	/**
+	 * Returns the direction the snake should move in next.
+	 * 
+	 * Called after the snake's head was added to its body,
+	 * and before the snake moves. The direction has to lead to a
+	 * valid location, as long as the snake isn't trapped.
+	 * 
+	 * @param board 		The board the snake is on.
+	 * @return Direction
+	 */
+	Direction nextDirection(Board board);
+}
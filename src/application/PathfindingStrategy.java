@@ -0,0 +1,205 @@
+package application;
+
+import java.util.Arrays;
+
+import application.Board.Direction;
+
+public abstract class PathfindingStrategy implements MovementStrategy {
+	// All directions, values() makes a new copy every time
+	private static final Direction DIRECTIONS[] = Direction.values();
+	
+	// Used when there is no apple, or the snake is trapped
+	private final MovementStrategy fallback = new GreedyStrategy();
+	
+	// Finds the area the snake can reach when there is no path to the apple
+	private final Reachability reachability = new Reachability();
+	
+	// The dimension of the board being searched
+	protected int dimension;
+	
+	// The difference between neighbouring packed locations, in the order of the directions
+	protected int offsets[] = Board.offsets(0);
+	
+	// The location each location was reached from, indexed by packed location
+	protected int parent[] = new int[0];
+	
+	// The search each location was last reached in, so the arrays never have to be cleared
+	protected int visited[] = new int[0];
+	
+	// The current search
+	protected int search = 0;
+	
+	/**
+	 * Moves along the shortest path to the apple,
+	 * or towards the most room if there is none.
+	 * 
+	 * @param board 		The board the snake is on.
+	 * @return Direction
+	 */
+	public Direction nextDirection(Board board) {
+		Apple apple = board.apple();
+		if (apple.location == null) return this.fallback.nextDirection(board);
+		
+		prepare(board);
+		
+		Snake snake = board.snake();
+		int start = snake.head.x * this.dimension + snake.head.y;
+		int goal = apple.location.x * this.dimension + apple.location.y;
+		if (start == goal || !search(board, start, goal)) return escape(board);
+		
+		return direction(start, firstStep(start, goal));
+	}
+	
+	/**
+	 * Returns the direction with the most room to move around in,
+	 * for when there is no path to the apple.
+	 * 
+	 * Prefers locations where the snake still fits, see Reachability.
+	 * Falls back to the greedy strategy if every direction is blocked.
+	 * 
+	 * @param board 		The board the snake is on.
+	 * @return Direction
+	 */
+	protected Direction escape(Board board) {
+		Snake snake = board.snake();
+		int dimension = board.dimension();
+		
+		Direction best = null;
+		boolean bestFits = false;
+		int bestCells = 0;
+		for (Direction direction : DIRECTIONS) {
+			int next = snake.nextRow(direction) * dimension + snake.nextColumn(direction);
+			if (!board.isValid(next)) continue;
+			
+			this.reachability.analyze(board, next);
+			boolean fits = this.reachability.canHoldSnake();
+			int cells = this.reachability.reachableCells();
+			if (best == null || (fits && !bestFits) || (fits == bestFits && cells > bestCells)) {
+				best = direction;
+				bestFits = fits;
+				bestCells = cells;
+			}
+		}
+		
+		return best != null ? best : this.fallback.nextDirection(board);
+	}
+	
+	/**
+	 * Finds a shortest path from the snake's head to the apple.
+	 * 
+	 * @param board 	The board the snake is on.
+	 * @param path 		Receives the packed locations of the path, from the first step
+	 * 					to the apple. Needs room for every location on the board.
+	 * @return int 		The length of the path, or -1 if there is none.
+	 */
+	public int findPath(Board board, int path[]) {
+		Apple apple = board.apple();
+		if (apple.location == null) return -1;
+		
+		prepare(board);
+		
+		Snake snake = board.snake();
+		int start = snake.head.x * this.dimension + snake.head.y;
+		int goal = apple.location.x * this.dimension + apple.location.y;
+		if (start == goal || !search(board, start, goal)) return -1;
+		
+		// count the steps, then fill in the path from the apple back to the start
+		int length = 0;
+		for (int cell = goal; cell != start; cell = this.parent[cell]) {
+			length++;
+		}
+		int i = length;
+		for (int cell = goal; cell != start; cell = this.parent[cell]) {
+			path[--i] = cell;
+		}
+		return length;
+	}
+	
+	/**
+	 * Searches for a path from the start to the goal,
+	 * only going through valid locations.
+	 * 
+	 * Marks each reached location with the current search in visited,
+	 * and the location it was reached from in parent.
+	 * 
+	 * @param board 	The board to search.
+	 * @param start 	The packed location to start from.
+	 * @param goal 		The packed location to find.
+	 * @return boolean 	True if the goal was reached.
+	 */
+	protected abstract boolean search(Board board, int start, int goal);
+	
+	/**
+	 * Creates the work arrays for a board with the given number of locations.
+	 * 
+	 * @param cells 	The number of locations on the board.
+	 */
+	protected void allocate(int cells) {
+		this.parent = new int[cells];
+		this.visited = new int[cells];
+	}
+	
+	/**
+	 * Starts a new search on the board.
+	 * 
+	 * Only creates new work arrays when the board is larger than before.
+	 * 
+	 * @param board 	The board to search.
+	 */
+	protected void prepare(Board board) {
+		if (board.dimension() != this.dimension) {
+			this.dimension = board.dimension();
+			this.offsets = Board.offsets(this.dimension);
+		}
+		
+		int cells = this.dimension * this.dimension;
+		if (this.visited.length < cells) {
+			allocate(cells);
+			this.search = 0;
+		}
+		
+		// start counting again once every search number was used
+		this.search++;
+		if (this.search == Integer.MAX_VALUE) {
+			clear();
+			this.search = 1;
+		}
+	}
+	
+	/**
+	 * Clears the marks left by earlier searches.
+	 */
+	protected void clear() {
+		Arrays.fill(this.visited, 0);
+	}
+	
+	/**
+	 * Returns the first location after the start on the path to the goal.
+	 * 
+	 * @param start 	The packed location the path starts at.
+	 * @param goal 		The packed location the path ends at.
+	 * @return int
+	 */
+	protected int firstStep(int start, int goal) {
+		int cell = goal;
+		while (this.parent[cell] != start) {
+			cell = this.parent[cell];
+		}
+		return cell;
+	}
+	
+	/**
+	 * Returns the direction from a location to a neighbouring location.
+	 * 
+	 * @param from 			The packed location to move from.
+	 * @param to 			The packed neighbouring location to move to.
+	 * @return Direction
+	 */
+	protected Direction direction(int from, int to) {
+		int offset = to - from;
+		if (offset == -1) return Direction.NORTH;
+		if (offset == 1) return Direction.SOUTH;
+		if (offset == this.dimension) return Direction.EAST;
+		return Direction.WEST;
+	}
+}
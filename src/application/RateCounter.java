@@ -0,0 +1,50 @@
+package application;
+
+public class RateCounter {
+	// The length of the window events are counted over (in nanoseconds)
+	private static final long WINDOW = 1_000_000_000L;
+	
+	// Whether the first event was counted, as System.nanoTime() can be any value, even negative
+	private boolean started = false;
+	
+	// When the current window started (in nanoseconds)
+	private long windowStart;
+	
+	// The number of events in the current window
+	private long count = 0;
+	
+	// The number of events per second in the last full window
+	private volatile double rate = 0;
+	
+	/**
+	 * Counts an event.
+	 * 
+	 * Only call from one thread.
+	 * 
+	 * @param now 	The time of the event, from System.nanoTime().
+	 */
+	public void count(long now) {
+		if (!this.started) {
+			this.windowStart = now;
+			this.started = true;
+		}
+		
+		// start a new window once a second has passed
+		long elapsed = now - this.windowStart;
+		if (elapsed >= WINDOW) {
+			this.rate = this.count * 1e9 / elapsed;
+			this.windowStart = now;
+			this.count = 0;
+		}
+		this.count++;
+	}
+	
+	/**
+	 * Returns the number of events per second, as of the last full second.
+	 * 
+	 * @return double
+	 */
+	public double rate() {
+		return this.rate;
+	}
+}
@@ -0,0 +1,247 @@
+package application;
+
+import java.util.Arrays;
+
+import application.Tile.Type;
+
+public class Reachability {
+	// The dimension of the board last analyzed
+	private int dimension = 0;
+	
+	// The difference between neighbouring packed locations
+	private int offsets[] = Board.offsets(0);
+	
+	// The locations waiting to be visited
+	private int queue[] = new int[0];
+	
+	// The fill each location was last reached in, so the array never has to be cleared
+	private int visited[] = new int[0];
+	
+	// The fill each location was last marked as part of the snake's body in,
+	// and the number of moves until the body moves off it
+	private int bodyMarked[] = new int[0];
+	private int bodyLeaves[] = new int[0];
+	
+	// The current fill
+	private int fill = 0;
+	
+	// The board, version and start of the last analysis, to reuse it while nothing changed
+	private Board board;
+	private int version;
+	private int start = -1;
+	
+	// The number of locations reached, stops counting once the snake fits and the apple was found
+	private int reachableCells;
+	
+	// Whether the apple can be reached
+	private boolean appleReachable;
+	
+	// Whether the apple was placed when analyzed
+	private boolean applePlaced;
+	
+	// Whether the end of the snake's body borders the reached area
+	private boolean tailReachable;
+	
+	// The fewest moves until an element of the body bordering the reached area moves off,
+	// or Integer.MAX_VALUE if none borders it
+	private int opensAfter;
+	
+	// The length of the snake when analyzed
+	private int snakeLength;
+	
+	/**
+	 * Analyzes the area the snake's head can reach.
+	 * 
+	 * @param board 	The board the snake is on.
+	 */
+	public void analyze(Board board) {
+		Snake snake = board.snake();
+		analyze(board, snake.head.x * board.dimension() + snake.head.y);
+	}
+	
+	/**
+	 * Analyzes the area that can be reached from a location,
+	 * going through valid locations only.
+	 * 
+	 * Reuses the last analysis if the board didn't change since.
+	 * 
+	 * @param board 	The board the snake is on.
+	 * @param start 	The packed location to start from, usually the snake's head
+	 * 					or a location next to it.
+	 */
+	public void analyze(Board board, int start) {
+		if (board == this.board && board.version() == this.version && start == this.start
+				&& board.snake().length == this.snakeLength) return;
+		
+		prepare(board);
+		this.board = board;
+		this.version = board.version();
+		this.start = start;
+		
+		Snake snake = board.snake();
+		Apple apple = board.apple();
+		int appleCell = apple.location == null ? -1 : apple.location.x * this.dimension + apple.location.y;
+		int tail = tail(board);
+		this.snakeLength = snake.length;
+		
+		int queue[] = this.queue;
+		int visited[] = this.visited;
+		int fill = this.fill;
+		int reached = 0;
+		boolean appleFound = appleCell < 0;
+		boolean tailFound = false;
+		int opensAfter = Integer.MAX_VALUE;
+		
+		// the body moves off each of its locations, from the end, one move at a time
+		SnakeBody body = snake.body;
+		int bodyMarked[] = this.bodyMarked;
+		int bodyLeaves[] = this.bodyLeaves;
+		for (int i = 0; i < body.size(); i++) {
+			bodyMarked[body.cell(i)] = fill;
+			bodyLeaves[body.cell(i)] = Math.max(1, body.size() - 1 - i);
+		}
+		
+		int first = 0;
+		int last = 0;
+		queue[last++] = start;
+		visited[start] = fill;
+		
+		while (first < last) {
+			int cell = queue[first++];
+			reached++;
+			if (cell == appleCell) appleFound = true;
+			
+			// the snake fits and the apple was found, so there is nothing more to know
+			if (reached >= this.snakeLength && appleFound) break;
+			
+			for (int offset : this.offsets) {
+				int next = cell + offset;
+				if (visited[next] == fill) continue;
+				if (!board.isValid(next)) {
+					if (next == tail) tailFound = true;
+					if (bodyMarked[next] == fill) opensAfter = Math.min(opensAfter, bodyLeaves[next]);
+					continue;
+				}
+				visited[next] = fill;
+				queue[last++] = next;
+			}
+		}
+		
+		this.reachableCells = reached;
+		this.appleReachable = appleFound && appleCell >= 0;
+		this.applePlaced = appleCell >= 0;
+		this.tailReachable = tailFound;
+		this.opensAfter = opensAfter;
+	}
+	
+	/**
+	 * Returns the number of locations that can be reached, including the start.
+	 * 
+	 * Counting stops once the snake fits and the apple was found,
+	 * so this is at least the snake's length in that case.
+	 * 
+	 * @return int
+	 */
+	public int reachableCells() {
+		return this.reachableCells;
+	}
+	
+	/**
+	 * Returns true if the apple can be reached.
+	 * 
+	 * @return boolean
+	 */
+	public boolean appleReachable() {
+		return this.appleReachable;
+	}
+	
+	/**
+	 * Returns true if the reached area borders the end of the snake's body,
+	 * which moves out of the way as the snake follows it.
+	 * 
+	 * @return boolean
+	 */
+	public boolean tailReachable() {
+		return this.tailReachable;
+	}
+	
+	/**
+	 * Returns true if the reached area can still hold the snake,
+	 * either because it's large enough, because the snake can follow its tail,
+	 * or because the body moves off a location bordering the area
+	 * before the snake runs out of room.
+	 * 
+	 * @return boolean
+	 */
+	public boolean canHoldSnake() {
+		return this.reachableCells >= this.snakeLength || this.tailReachable
+				|| this.opensAfter <= this.reachableCells - 1;
+	}
+	
+	/**
+	 * Returns true if the reached area can still hold the snake,
+	 * and holds the apple or will open up to it as the body moves.
+	 * 
+	 * The area opens up if it borders the body and the snake fits
+	 * until the body moves off. This leans towards the game still being
+	 * winnable: an apple outside may still be out of reach once the area opens.
+	 * 
+	 * Use this to tell whether the game can still be won from the analyzed location.
+	 * Use canHoldSnake() to pick between locations when the apple can't be reached anyway,
+	 * like PathfindingStrategy.escape() does.
+	 * 
+	 * @return boolean
+	 */
+	public boolean canHoldSnakeAndReachApple() {
+		if (!canHoldSnake()) return false;
+		if (this.appleReachable || !this.applePlaced || this.tailReachable) return true;
+		
+		// the body moves off the area's border in time if the snake fits while it waits
+		return this.opensAfter != Integer.MAX_VALUE
+				&& (this.reachableCells >= this.snakeLength || this.opensAfter <= this.reachableCells - 1);
+	}
+	
+	/**
+	 * Returns the packed location of the last shown element of the snake's body,
+	 * or -1 if no element is shown.
+	 * 
+	 * @param board 	The board the snake is on.
+	 * @return int
+	 */
+	private int tail(Board board) {
+		SnakeBody body = board.snake().body;
+		for (int i = body.size() - 1; i >= 0 && i >= body.size() - 2; i--) {
+			if (board.typeOf(body.cell(i)) == Type.SNAKE_BODY) return body.cell(i);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Starts a new fill, only creating new work arrays when the board is larger than before.
+	 * 
+	 * @param board 	The board to analyze.
+	 */
+	private void prepare(Board board) {
+		if (board.dimension() != this.dimension) {
+			this.dimension = board.dimension();
+			this.offsets = Board.offsets(this.dimension);
+		}
+		
+		int cells = this.dimension * this.dimension;
+		if (this.visited.length < cells) {
+			this.queue = new int[cells];
+			this.visited = new int[cells];
+			this.bodyMarked = new int[cells];
+			this.bodyLeaves = new int[cells];
+			this.fill = 0;
+		}
+		
+		// start counting again once every fill number was used
+		this.fill++;
+		if (this.fill == Integer.MAX_VALUE) {
+			Arrays.fill(this.visited, 0);
+			Arrays.fill(this.bodyMarked, 0);
+			this.fill = 1;
+		}
+	}
+}
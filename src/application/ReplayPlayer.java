@@ -0,0 +1,162 @@
+package application;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class ReplayPlayer implements Runnable {
+	// The events of the replay
+	private final ByteBuffer events;
+	
+	// The seed random apples were placed with
+	public final long seed;
+	
+	// The board the replay is played on
+	private final Board board;
+	
+	// The ticks left in the current run of ticks
+	private int ticks = 0;
+	
+	// The frames to hand to the renderer, or null when playing headless
+	private FrameBuffer frames;
+	
+	// The ticker playing the replay on a game loop, set once the loop may already be running it
+	private volatile GameLoop.Ticker ticker;
+	
+	// Whether the replay finished playing on the game loop
+	private volatile boolean done = false;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Reads a replay file, and creates the board it was recorded on.
+	 * 
+	 * @param path 		The file to read.
+	 * @throws IOException
+	 */
+	ReplayPlayer(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.events = ByteBuffer.allocate((int) channel.size());
+			while (this.events.hasRemaining() && channel.read(this.events) >= 0);
+			this.events.flip();
+		}
+		
+		if (this.events.remaining() < 18 || this.events.getInt() != ReplayRecorder.MAGIC) {
+			throw new IOException("Not a replay file: " + path);
+		}
+		short version = this.events.getShort();
+		if (version != ReplayRecorder.VERSION) {
+			throw new IOException("Unsupported replay version " + version + ": " + path);
+		}
+		
+		int dimension = this.events.getInt();
+		this.seed = this.events.getLong();
+		// the board has a border on each side
+		this.board = new Board(dimension - 2);
+	}
+	
+	/**
+	 * Returns the board the replay is played on.
+	 * 
+	 * @return Board
+	 */
+	public Board board() {
+		return this.board;
+	}
+	
+	/**
+	 * Returns true once every event of the replay was played.
+	 * 
+	 * @return boolean
+	 */
+	public boolean finished() {
+		return this.ticks == 0 && !this.events.hasRemaining();
+	}
+	
+	/**
+	 * Plays the next tick of the replay, placing any apples on the way.
+	 * 
+	 * @return boolean 	False if the replay is finished.
+	 */
+	public boolean step() {
+		while (this.ticks == 0) {
+			if (!this.events.hasRemaining()) return false;
+			
+			byte event = this.events.get();
+			if (event == ReplayRecorder.APPLE) {
+				int cell = this.events.getInt();
+				this.board.apple().place(cell / this.board.dimension(), cell % this.board.dimension());
+				this.board.update(true);
+			} else if (event == ReplayRecorder.TICKS) {
+				this.ticks = this.events.getInt();
+			} else {
+				throw new IllegalStateException("Unknown replay event " + event);
+			}
+		}
+		
+		this.board.tick();
+		this.ticks--;
+		return true;
+	}
+	
+	/**
+	 * Plays the whole replay as fast as possible, without drawing it.
+	 * 
+	 * @return Board 	The board at the end of the replay.
+	 */
+	public Board playHeadless() {
+		while (step());
+		return this.board;
+	}
+	
+	/**
+	 * Plays the replay on a game loop, handing each tick to the renderer.
+	 * 
+	 * @param loop 		The game loop to play on.
+	 * @param rate 		The number of ticks per second, or GameLoop.AS_FAST_AS_POSSIBLE.
+	 * @param frames 	The frames to hand to the renderer.
+	 */
+	public void start(GameLoop loop, double rate, FrameBuffer frames) {
+		this.frames = frames;
+		this.ticker = loop.schedule(this, rate);
+		
+		// a short replay can finish before the ticker is set, so it couldn't cancel it
+		if (this.done) this.ticker.cancel();
+	}
+	
+	/**
+	 * Plays a replay file headless, and prints how the game ended.
+	 * 
+	 * @param args 	The replay file.
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		ReplayPlayer replay = new ReplayPlayer(Paths.get(args[0]));
+		
+		long start = System.nanoTime();
+		Board board = replay.playHeadless();
+		long elapsed = System.nanoTime() - start;
+		
+		System.out.println("seed " + replay.seed + ", length " + board.snake().length
+				+ (board.snakeIsTrapped() ? ", trapped" : "")
+				+ ", played in " + elapsed / 1_000_000 + "ms");
+	}
+	
+	/**
+	 * Plays one tick on the game loop, and stops at the end of the replay.
+	 */
+	public void run() {
+		if (this.done) return;
+		
+		if (!step()) {
+			this.done = true;
+			GameLoop.Ticker ticker = this.ticker;
+			if (ticker != null) ticker.cancel();
+			return;
+		}
+		this.frames.publish(this.board);
+	}
+}
@@ -0,0 +1,111 @@
+package application;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ReplayRecorder implements AutoCloseable {
+	// Starts every replay file, "SNKR"
+	public static final int MAGIC = 0x534E4B52;
+	
+	// The version of the file format
+	public static final short VERSION = 1;
+	
+	// An apple placed on the board, followed by its packed location
+	public static final byte APPLE = 1;
+	
+	// A run of ticks, followed by the number of ticks
+	public static final byte TICKS = 2;
+	
+	// The file the replay is written to
+	private final FileChannel channel;
+	
+	// Collects events until they're written to the file
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+	
+	// The dimension of the board being recorded
+	private final int dimension;
+	
+	// The number of ticks since the last event written
+	private int ticks = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * Starts a replay file for a board, replacing the file if it exists.
+	 * 
+	 * @param path 			The file to write to.
+	 * @param dimension 	The dimension of the board, including the border.
+	 * @param seed 			The seed random apples are placed with.
+	 * @throws IOException
+	 */
+	ReplayRecorder(Path path, int dimension, long seed) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.dimension = dimension;
+		
+		this.buffer.putInt(MAGIC);
+		this.buffer.putShort(VERSION);
+		this.buffer.putInt(dimension);
+		this.buffer.putLong(seed);
+	}
+	
+	/**
+	 * Records a tick.
+	 * 
+	 * Ticks are only counted, and written as one event before the next apple.
+	 */
+	public void tick() {
+		this.ticks++;
+	}
+	
+	/**
+	 * Records an apple placed on the board, and writes
+	 * everything recorded so far to the file.
+	 * 
+	 * @param row 		The row of the apple.
+	 * @param column 	The column of the apple.
+	 * @throws IOException
+	 */
+	public void apple(int row, int column) throws IOException {
+		writeTicks();
+		this.buffer.put(APPLE);
+		this.buffer.putInt(row * this.dimension + column);
+		flush();
+	}
+	
+	/**
+	 * Adds the ticks counted since the last event to the buffer.
+	 */
+	private void writeTicks() {
+		if (this.ticks == 0) return;
+		this.buffer.put(TICKS);
+		this.buffer.putInt(this.ticks);
+		this.ticks = 0;
+	}
+	
+	/**
+	 * Writes the buffer to the file.
+	 * 
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+	
+	/**
+	 * Writes the remaining ticks, and closes the file.
+	 * 
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		writeTicks();
+		flush();
+		this.channel.close();
+	}
+}
@@ -1,8 +1,6 @@
 package application;
 
-import java.util.LinkedList;
 import java.awt.Point;
-import javafx.scene.paint.Color;
 
 import application.Board.Direction;
 
@@ -14,25 +12,24 @@ public class Snake {
 	public Point head;
 	
 	// The body of the snake
-	public LinkedList<Point> body;
+	public SnakeBody body;
 	
-	// The color of the head
-	public Color headColor = Color.web("#4CAF50");
-	
-	// The color of the body
-	public Color bodyColor = Color.web("#8BC34A");
+	// The packed location the end of the body left on the last move, or -1 if none
+	public int vacated = -1;
 	
 	/**
 	 * Constructor
 	 * 
 	 * Initialize snake length to 1,
 	 * location to the fifth row, fifth column of the board,
-	 * and create a linked list to keep track of the body.
+	 * and create a ring buffer to keep track of the body.
+	 * 
+	 * @param dimension 	The dimension of the board the snake is on.
 	 */
-	Snake() {
+	Snake(int dimension) {
 		this.length = 1;
 		this.head = new Point(5, 5);
-		this.body = new LinkedList<Point>();
+		this.body = new SnakeBody(dimension);
 	}
 	
 	/**
@@ -42,13 +39,38 @@ public class Snake {
 		this.length++;
 	}
 	
+	/**
+	 * Returns true if the snake's head or body is at the given location.
+	 * 
+	 * Includes the end of the body that isn't shown until an apple is eaten.
+	 * 
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean occupies(int row, int column) {
+		return (this.head.x == row && this.head.y == column) || this.body.contains(row, column);
+	}
+	
 	/**
 	 * Move the snake to a new point on the board.
 	 * 
 	 * @param point P 	The point to move the snake to.
 	 */
 	public void moveTo(Point p) {
-		this.head = new Point((int) p.getX(), (int) p.getY());
+		moveTo((int) p.getX(), (int) p.getY());
+	}
+	
+	/**
+	 * Move the snake to a new location on the board.
+	 * 
+	 * Updates the head in place instead of creating a new point.
+	 * 
+	 * @param row 		The row to move the snake to.
+	 * @param column 	The column to move the snake to.
+	 */
+	public void moveTo(int row, int column) {
+		this.head.setLocation(row, column);
 	}
 	
 	/**
@@ -74,13 +96,57 @@ public class Snake {
 		}
 	}
 	
+	/**
+	 * Returns the row the snake would move to in a direction.
+	 * 
+	 * @param direction 	NORTH, EAST, SOUTH, WEST
+	 * @return int
+	 */
+	public int nextRow(Direction direction) {
+		switch (direction) {
+			case EAST:
+				return this.head.x + 1;
+			case WEST:
+				return this.head.x - 1;
+			default:
+				return this.head.x;
+		}
+	}
+	
+	/**
+	 * Returns the column the snake would move to in a direction.
+	 * 
+	 * @param direction 	NORTH, EAST, SOUTH, WEST
+	 * @return int
+	 */
+	public int nextColumn(Direction direction) {
+		switch (direction) {
+			case NORTH:
+				return this.head.y - 1;
+			case SOUTH:
+				return this.head.y + 1;
+			default:
+				return this.head.y;
+		}
+	}
+	
 	/**
 	 * Adds an element to the body of the snake.
 	 * 
 	 * @param Point p 	The location of the body element to add
 	 */
 	public void addToBody(Point p) {
-		this.body.addFirst(new Point((int) p.getX(), (int) p.getY()));
+		addToBody((int) p.getX(), (int) p.getY());
+	}
+	
+	/**
+	 * Adds an element to the body of the snake.
+	 * 
+	 * @param row 		The row of the body element to add.
+	 * @param column 	The column of the body element to add.
+	 */
+	public void addToBody(int row, int column) {
+		this.body.addFirst(row, column);
 		
 		trimBody();
 	}
@@ -91,8 +157,9 @@ public class Snake {
 	 * Keep track of an additional tile for when the snake eats an apple.
 	 */
 	private void trimBody() {
+		this.vacated = -1;
 		if (this.body.size() > this.length) {
-			this.body.removeLast();
+			this.vacated = this.body.removeLast();
 		}
 	}
 }
\ No newline at end of file
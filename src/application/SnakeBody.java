@@ -0,0 +1,164 @@
+package application;
+
+import java.util.Arrays;
+
+public class SnakeBody {
+	// The dimension of the board the body is on
+	private final int dimension;
+
+	// The locations of the body packed as row * dimension + column,
+	// stored in a circular buffer starting at the front of the body
+	private int cells[] = new int[16];
+
+	// The position of the front of the body in the buffer
+	private int first = 0;
+
+	// The number of elements in the body
+	private int size = 0;
+
+	// One bit for each location on the board, set if the body is there
+	private long occupied[];
+
+	/**
+	 * Constructor
+	 *
+	 * Creates an empty body for a board of the given dimension.
+	 *
+	 * @param dimension 	The dimension of the board, including the border.
+	 */
+	SnakeBody(int dimension) {
+		this.dimension = dimension;
+		this.occupied = new long[(dimension * dimension + 63) / 64];
+	}
+
+	/**
+	 * Returns the number of elements in the body.
+	 *
+	 * @return int
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the packed location of an element of the body.
+	 *
+	 * @param i 		The element, counting from the front of the body.
+	 * @return int 		The location as row * dimension + column.
+	 */
+	public int cell(int i) {
+		return this.cells[(this.first + i) & (this.cells.length - 1)];
+	}
+
+	/**
+	 * Returns the row of an element of the body.
+	 *
+	 * @param i 		The element, counting from the front of the body.
+	 * @return int
+	 */
+	public int row(int i) {
+		return cell(i) / this.dimension;
+	}
+
+	/**
+	 * Returns the column of an element of the body.
+	 *
+	 * @param i 		The element, counting from the front of the body.
+	 * @return int
+	 */
+	public int column(int i) {
+		return cell(i) % this.dimension;
+	}
+
+	/**
+	 * Returns true if an element of the body is at the given location.
+	 *
+	 * @param row 		The row of the location.
+	 * @param column 	The column of the location.
+	 * @return boolean
+	 */
+	public boolean contains(int row, int column) {
+		int cell = row * this.dimension + column;
+		return (this.occupied[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Adds an element to the front of the body.
+	 *
+	 * @param row 		The row of the element.
+	 * @param column 	The column of the element.
+	 */
+	public void addFirst(int row, int column) {
+		if (this.size == this.cells.length) grow();
+
+		int cell = row * this.dimension + column;
+		this.first = (this.first - 1) & (this.cells.length - 1);
+		this.cells[this.first] = cell;
+		this.size++;
+		this.occupied[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * Removes the element at the end of the body.
+	 *
+	 * The end of the body can only be at the same location as
+	 * the front of the body, when the snake moved onto its own tail.
+	 * The location stays occupied in that case.
+	 *
+	 * @return int 		The packed location of the removed element.
+	 */
+	public int removeLast() {
+		int cell = cell(this.size - 1);
+		this.size--;
+		if (this.size == 0 || cell != cell(0)) {
+			this.occupied[cell >>> 6] &= ~(1L << cell);
+		}
+		return cell;
+	}
+
+	/**
+	 * Copies the body into an array, front first.
+	 *
+	 * @param into 		The array to copy into, with room for every element.
+	 * @return int 		The number of elements copied.
+	 */
+	public int copyTo(int into[]) {
+		int start = this.first;
+		int tail = Math.min(this.size, this.cells.length - start);
+		System.arraycopy(this.cells, start, into, 0, tail);
+		System.arraycopy(this.cells, 0, into, tail, this.size - tail);
+		return this.size;
+	}
+
+	/**
+	 * Replaces the body with the elements of an array, front first.
+	 *
+	 * @param from 		The packed locations of the elements.
+	 * @param size 		The number of elements.
+	 */
+	public void restore(int from[], int size) {
+		if (this.cells.length < size) {
+			this.cells = new int[Integer.highestOneBit(size) << 1];
+		}
+		System.arraycopy(from, 0, this.cells, 0, size);
+		this.first = 0;
+		this.size = size;
+
+		Arrays.fill(this.occupied, 0);
+		for (int i = 0; i < size; i++) {
+			this.occupied[from[i] >>> 6] |= 1L << from[i];
+		}
+	}
+
+	/**
+	 * Doubles the size of the buffer, keeping the front of the body first.
+	 */
+	private void grow() {
+		int grown[] = new int[this.cells.length * 2];
+		for (int i = 0; i < this.size; i++) {
+			grown[i] = cell(i);
+		}
+		this.cells = grown;
+		this.first = 0;
+	}
+}
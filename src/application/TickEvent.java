@@ -0,0 +1,28 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("application.Tick")
+@Label("Tick")
+@Category("Snake")
+@Description("The snake moving one tile on the game loop")
+@StackTrace(false)
+public class TickEvent extends Event {
+	@Label("Board Size")
+	@Description("The number of rows and columns inside the border")
+	public int boardSize;
+	
+	@Label("Snake Length")
+	public int length;
+	
+	@Label("Direction")
+	public String direction;
+	
+	@Label("Ate Apple")
+	public boolean ateApple;
+}
@@ -0,0 +1,283 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class TickMetrics implements TickMetricsMBean {
+	// Whether metrics are collected, set with -Dsnake.metrics=true.
+	// Checks of this are removed by the JIT when it's false, so the hot paths cost nothing extra
+	public static final boolean ENABLED = Boolean.getBoolean("snake.metrics");
+
+	// How often the metrics are logged (in seconds), set with -Dsnake.metrics.interval=<seconds>
+	private static final long LOG_INTERVAL = Long.getLong("snake.metrics.interval", 10);
+
+	// The name the metrics are registered under with JMX
+	public static final String OBJECT_NAME = "application:type=TickMetrics";
+
+	public enum Phase {
+		MOVE, UPDATE, DISPLAY, TRAPPED, APPLE
+	};
+
+	// The time each phase took
+	private static final LatencyHistogram latencies[] = new LatencyHistogram[Phase.values().length];
+
+	// The number of bytes allocated during each phase
+	private static final AtomicLongArray allocated = new AtomicLongArray(Phase.values().length);
+
+	// The number of times the snake turned because the way to the apple was blocked
+	private static final AtomicLong directionRetries = new AtomicLong();
+
+	// Counts the bytes allocated by each thread, or null if the JVM can't
+	private static final com.sun.management.ThreadMXBean threads = allocationCounter();
+
+	// The bytes the counter allocates itself each time it's read. Before Java 14 reading it
+	// allocates a couple of arrays, which would otherwise be counted as part of every phase
+	private static final long counterBytes = counterBytes();
+
+	// The bytes allocated by the thread when each phase it's in started
+	private static final ThreadLocal<long[]> phaseBytes = ThreadLocal.withInitial(() -> new long[Phase.values().length]);
+
+	// The metrics registered with JMX, or null if not registered yet
+	private static TickMetrics registered;
+
+	static {
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * Creates a view of the metrics for JMX. The metrics themselves are shared by the whole JVM.
+	 */
+	TickMetrics() {
+	}
+
+	/**
+	 * Starts timing a phase on the current thread.
+	 *
+	 * Only call when ENABLED, like
+	 * long start = TickMetrics.ENABLED ? TickMetrics.begin(Phase.MOVE) : 0;
+	 *
+	 * @param phase 	The phase starting.
+	 * @return long 	The time the phase started, to pass to end().
+	 */
+	public static long begin(Phase phase) {
+		if (threads != null) phaseBytes.get()[phase.ordinal()] = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		return System.nanoTime();
+	}
+
+	/**
+	 * Stops timing a phase on the current thread, and records how long it took
+	 * and how much it allocated.
+	 *
+	 * Counting allocations reads a native counter at the start and end of each phase,
+	 * which takes longer than the phases themselves on small boards. Leave metrics off
+	 * when measuring how fast the game runs.
+	 *
+	 * @param phase 	The phase ending.
+	 * @param start 	The time returned by begin().
+	 */
+	public static void end(Phase phase, long start) {
+		latencies[phase.ordinal()].record(System.nanoTime() - start);
+		if (threads != null) {
+			long bytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			long phaseAllocated = bytes - phaseBytes.get()[phase.ordinal()] - counterBytes;
+			if (phaseAllocated > 0) allocated.addAndGet(phase.ordinal(), phaseAllocated);
+		}
+	}
+
+	/**
+	 * Counts the snake turning because the way to the apple was blocked.
+	 */
+	public static void directionRetry() {
+		directionRetries.incrementAndGet();
+	}
+
+	/**
+	 * Returns the times a phase took.
+	 *
+	 * @param phase 	The phase.
+	 * @return LatencyHistogram
+	 */
+	public static LatencyHistogram latencies(Phase phase) {
+		return latencies[phase.ordinal()];
+	}
+
+	/**
+	 * Registers the metrics with JMX, and logs them periodically.
+	 *
+	 * Does nothing if metrics aren't enabled, or were already registered.
+	 */
+	public static synchronized void register() {
+		if (!ENABLED || registered != null) return;
+		registered = new TickMetrics();
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(registered, new ObjectName(OBJECT_NAME));
+		} catch (JMException e) {
+			Logger.getLogger(TickMetrics.class.getName()).warning("Couldn't register metrics with JMX: " + e.getMessage());
+		}
+
+		ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "tick-metrics");
+			thread.setDaemon(true);
+			return thread;
+		});
+		logger.scheduleAtFixedRate(() -> Logger.getLogger(TickMetrics.class.getName()).info(summary()),
+				LOG_INTERVAL, LOG_INTERVAL, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Describes the metrics on one line, like
+	 * move n=1200 mean=310ns p99=895ns max=12287ns alloc=0B ... retries=83
+	 *
+	 * @return String
+	 */
+	public static String summary() {
+		StringBuilder line = new StringBuilder();
+		for (Phase phase : Phase.values()) {
+			LatencyHistogram histogram = latencies[phase.ordinal()];
+			line.append(phase.name().toLowerCase())
+				.append(" n=").append(histogram.count())
+				.append(" mean=").append(Math.round(histogram.mean())).append("ns")
+				.append(" p99=").append(histogram.percentile(0.99)).append("ns")
+				.append(" max=").append(histogram.max()).append("ns")
+				.append(" alloc=").append(allocated.get(phase.ordinal())).append("B, ");
+		}
+		return line.append("retries=").append(directionRetries.get()).toString();
+	}
+
+	/**
+	 * Gets the JVM's allocation counter, if it has one that's turned on.
+	 *
+	 * @return com.sun.management.ThreadMXBean 	The counter, or null if allocations can't be counted.
+	 */
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) return null;
+
+		com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+		if (!counter.isThreadAllocatedMemorySupported() || !counter.isThreadAllocatedMemoryEnabled()) return null;
+		return counter;
+	}
+
+	/**
+	 * Measures how many bytes reading the allocation counter allocates,
+	 * by reading it twice in a row.
+	 *
+	 * Takes the least of many tries, once the counter was read enough to be compiled.
+	 *
+	 * @return long
+	 */
+	private static long counterBytes() {
+		if (!ENABLED || threads == null) return 0;
+
+		long id = Thread.currentThread().getId();
+		long least = Long.MAX_VALUE;
+		for (int i = 0; i < 20000; i++) {
+			long before = threads.getThreadAllocatedBytes(id);
+			long after = threads.getThreadAllocatedBytes(id);
+			least = Math.min(least, after - before);
+		}
+		return least;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return ENABLED;
+	}
+
+	@Override
+	public String[] getPhases() {
+		String names[] = new String[Phase.values().length];
+		for (Phase phase : Phase.values()) {
+			names[phase.ordinal()] = phase.name();
+		}
+		return names;
+	}
+
+	@Override
+	public long[] getCounts() {
+		long counts[] = new long[latencies.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = latencies[i].count();
+		}
+		return counts;
+	}
+
+	@Override
+	public double[] getMeanNanos() {
+		double means[] = new double[latencies.length];
+		for (int i = 0; i < means.length; i++) {
+			means[i] = latencies[i].mean();
+		}
+		return means;
+	}
+
+	@Override
+	public long[] getMedianNanos() {
+		return percentiles(0.5);
+	}
+
+	@Override
+	public long[] getP99Nanos() {
+		return percentiles(0.99);
+	}
+
+	@Override
+	public long[] getMaxNanos() {
+		long max[] = new long[latencies.length];
+		for (int i = 0; i < max.length; i++) {
+			max[i] = latencies[i].max();
+		}
+		return max;
+	}
+
+	@Override
+	public long[] getAllocatedBytes() {
+		long bytes[] = new long[allocated.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = allocated.get(i);
+		}
+		return bytes;
+	}
+
+	@Override
+	public long getDirectionRetries() {
+		return directionRetries.get();
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i].reset();
+			allocated.set(i, 0);
+		}
+		directionRetries.set(0);
+	}
+
+	/**
+	 * Returns a percentile of the time each phase took.
+	 *
+	 * @param fraction 	The fraction of the times, from 0 to 1.
+	 * @return long[]
+	 */
+	private long[] percentiles(double fraction) {
+		long percentiles[] = new long[latencies.length];
+		for (int i = 0; i < percentiles.length; i++) {
+			percentiles[i] = latencies[i].percentile(fraction);
+		}
+		return percentiles;
+	}
+}
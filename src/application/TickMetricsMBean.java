@@ -0,0 +1,72 @@
+package application;
+
+public interface TickMetricsMBean {
+	/**
+	 * Returns whether metrics are collected, set with -Dsnake.metrics=true.
+	 *
+	 * @return boolean
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Returns the names of the phases, in the order the other arrays are in.
+	 *
+	 * @return String[]
+	 */
+	String[] getPhases();
+
+	/**
+	 * Returns the number of times each phase ran.
+	 *
+	 * @return long[]
+	 */
+	long[] getCounts();
+
+	/**
+	 * Returns the mean time each phase took (in nanoseconds).
+	 *
+	 * @return double[]
+	 */
+	double[] getMeanNanos();
+
+	/**
+	 * Returns the median time each phase took (in nanoseconds).
+	 *
+	 * @return long[]
+	 */
+	long[] getMedianNanos();
+
+	/**
+	 * Returns the 99th percentile of the time each phase took (in nanoseconds).
+	 *
+	 * @return long[]
+	 */
+	long[] getP99Nanos();
+
+	/**
+	 * Returns the longest time each phase took (in nanoseconds).
+	 *
+	 * @return long[]
+	 */
+	long[] getMaxNanos();
+
+	/**
+	 * Returns the number of bytes allocated during each phase.
+	 *
+	 * @return long[]
+	 */
+	long[] getAllocatedBytes();
+
+	/**
+	 * Returns the number of times the snake had to turn
+	 * because the way to the apple was blocked.
+	 *
+	 * @return long
+	 */
+	long getDirectionRetries();
+
+	/**
+	 * Forgets everything measured so far.
+	 */
+	void reset();
+}
@@ -0,0 +1,123 @@
+package application;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ArenaParallelTest {
+	// The number of threads to tick on in parallel
+	private static final int THREADS[] = { 1, 2, 4, 8 };
+	
+	// The number of rows and columns inside the border of each arena, and the snakes and apples on it
+	private static final int ARENAS[][] = {
+		{ 20, 30, 10 },
+		{ 64, 400, 400 },
+		{ 128, 1500, 200 },
+	};
+	
+	// The number of seeded arenas to play of each kind, on each number of threads
+	private static final int SEEDS = 5;
+	
+	// The most ticks played on an arena
+	private static final int MAX_TICKS = 400;
+	
+	/**
+	 * Plays seeded arenas ticked one snake at a time and ticked on a pool side by side,
+	 * and checks that the arenas are the same after every tick.
+	 * 
+	 * Exits with status 1 on the first difference.
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		int arenas = 0;
+		long ticks = 0;
+		for (int threads : THREADS) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				for (int arena[] : ARENAS) {
+					for (long seed = 0; seed < SEEDS; seed++) {
+						ticks += play(pool, arena[0], arena[1], arena[2], seed);
+						arenas++;
+					}
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+		System.out.println("Ticks on one thread and on 1 to 8 threads matched over " + arenas + " arenas, " + ticks + " ticks");
+	}
+	
+	/**
+	 * Plays an arena on two copies, one ticked one snake at a time and one ticked on a pool.
+	 * 
+	 * @param pool 		The threads to tick the second copy on.
+	 * @param size 		The number of rows and columns inside the border.
+	 * @param snakes 	The number of snakes.
+	 * @param apples 	The number of apples.
+	 * @param seed 		The seed to pick locations from.
+	 * @return int 		The number of ticks played.
+	 */
+	private static int play(ForkJoinPool pool, int size, int snakes, int apples, long seed) {
+		Arena sequential = new Arena(size, snakes, apples, seed);
+		Arena parallel = new Arena(size, snakes, apples, seed);
+		
+		String arena = "threads=" + pool.getParallelism() + " size=" + size + " snakes=" + snakes + " seed=" + seed;
+		compare(sequential, parallel, arena + " at the start");
+		
+		int tick = 0;
+		while (tick < MAX_TICKS && sequential.alive() > 0) {
+			sequential.tick();
+			parallel.tick(pool);
+			tick++;
+			compare(sequential, parallel, arena + " tick " + tick);
+		}
+		return tick;
+	}
+	
+	/**
+	 * Checks that two arenas are the same: the owner of every location,
+	 * every apple, and the body of every snake.
+	 * 
+	 * @param sequential 	The arena ticked one snake at a time.
+	 * @param parallel 		The arena ticked on a pool.
+	 * @param where 		Describes the arena and tick, for the failure message.
+	 */
+	private static void compare(Arena sequential, Arena parallel, String where) {
+		int dimension = sequential.dimension();
+		for (int row = 0; row < dimension; row++) {
+			for (int column = 0; column < dimension; column++) {
+				int a = sequential.ownerOf(row, column);
+				int b = parallel.ownerOf(row, column);
+				if (a != b) fail(where + ": location " + row + "," + column + " owned by " + a + " on one thread, " + b + " in parallel");
+				
+				if (sequential.isApple(row, column) != parallel.isApple(row, column)) {
+					fail(where + ": apple at " + row + "," + column + " on one arena only");
+				}
+			}
+		}
+		
+		if (sequential.appleCount() != parallel.appleCount()) fail(where + ": " + sequential.appleCount() + " and " + parallel.appleCount() + " apples");
+		if (sequential.alive() != parallel.alive()) fail(where + ": " + sequential.alive() + " and " + parallel.alive() + " snakes alive");
+		if (sequential.ticks() != parallel.ticks()) fail(where + ": " + sequential.ticks() + " and " + parallel.ticks() + " ticks played");
+		
+		for (int id = 1; id <= sequential.snakeCount(); id++) {
+			ArenaSnake a = sequential.snake(id);
+			ArenaSnake b = parallel.snake(id);
+			if (a.alive != b.alive) fail(where + ": snake " + id + " alive on one arena only");
+			if (a.eaten != b.eaten) fail(where + ": snake " + id + " ate " + a.eaten + " and " + b.eaten);
+			if (a.length() != b.length()) fail(where + ": snake " + id + " of length " + a.length() + " and " + b.length());
+			for (int i = 0; i < a.length(); i++) {
+				if (a.cell(i) != b.cell(i)) fail(where + ": snake " + id + " body element " + i + " at " + a.cell(i) + " and " + b.cell(i));
+			}
+		}
+	}
+	
+	/**
+	 * Reports a difference between the arenas, and exits.
+	 * 
+	 * @param message 	The difference.
+	 */
+	private static void fail(String message) {
+		System.out.println("FAILED: " + message);
+		System.exit(1);
+	}
+}
@@ -0,0 +1,159 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ReplayTest {
+	// The number of rows and columns inside the border of the boards to play on
+	private static final int SIZES[] = { 5, 10, 30 };
+	
+	// The number of seeded games to record on each board size
+	private static final int GAMES = 100;
+	
+	// The most moves played in a game, so a snake going in circles still ends
+	private static final int MAX_TICKS = 20000;
+	
+	/**
+	 * Records seeded games, plays each recording back next to the game played again,
+	 * and checks that the boards are the same after every move.
+	 * 
+	 * Exits with status 1 on the first difference.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		Path file = Files.createTempFile("snake-replay-test", ".replay");
+		try {
+			int games = 0;
+			long ticks = 0;
+			for (int size : SIZES) {
+				for (long seed = 0; seed < GAMES; seed++) {
+					ticks += check(file, size, seed);
+					games++;
+				}
+			}
+			System.out.println("Replays matched the games recorded over " + games + " games, " + ticks + " moves");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	/**
+	 * Records a game, then replays it next to the same game played again.
+	 * 
+	 * @param file 		The file to record to.
+	 * @param size 		The number of rows and columns inside the border.
+	 * @param seed 		The seed for the apple locations.
+	 * @return int 		The number of moves played.
+	 * @throws IOException
+	 */
+	private static int check(Path file, int size, long seed) throws IOException {
+		Board recorded = new Board(size);
+		Random generator = new Random(seed);
+		int ticks = 0;
+		try (ReplayRecorder recorder = new ReplayRecorder(file, recorded.dimension(), seed)) {
+			while (ticks < MAX_TICKS && play(recorded, generator, recorder)) {
+				ticks++;
+			}
+		}
+		
+		String game = "size=" + size + " seed=" + seed;
+		ReplayPlayer replay = new ReplayPlayer(file);
+		if (replay.seed != seed) fail(game + ": replay has seed " + replay.seed);
+		
+		Board live = new Board(size);
+		generator = new Random(seed);
+		BoardFrame liveFrame = new BoardFrame(live.dimension());
+		BoardFrame replayFrame = new BoardFrame(live.dimension());
+		for (int tick = 1; tick <= ticks; tick++) {
+			play(live, generator, null);
+			if (!replay.step()) fail(game + ": replay ended at tick " + tick + " of " + ticks);
+			compare(live, replay.board(), liveFrame, replayFrame, game + " tick " + tick);
+		}
+		
+		if (replay.step() || !replay.finished()) fail(game + ": replay goes on after tick " + ticks);
+		compare(recorded, replay.board(), liveFrame, replayFrame, game + " at the end");
+		return ticks;
+	}
+	
+	/**
+	 * Places an apple if there is none, the way the game does, then moves the snake.
+	 * 
+	 * @param board 		The board to play on.
+	 * @param generator 	Picks the apple locations.
+	 * @param recorder 		Records the apples and moves, or null.
+	 * @return boolean 		False if the game is over instead.
+	 * @throws IOException
+	 */
+	private static boolean play(Board board, Random generator, ReplayRecorder recorder) throws IOException {
+		if (!board.apple().placed) {
+			if (board.isFull()) return false;
+			
+			int cell = board.randomFreeCell(generator);
+			int row = cell / board.dimension();
+			int column = cell % board.dimension();
+			board.apple().place(row, column);
+			board.update(true);
+			if (recorder != null) recorder.apple(row, column);
+		}
+		
+		if (board.snakeIsTrapped()) return false;
+		
+		board.tick();
+		if (recorder != null) recorder.tick();
+		return true;
+	}
+	
+	/**
+	 * Checks that two boards are the same: every tile, including the apple,
+	 * the snake's body and the location its tail left.
+	 * 
+	 * @param live 			The board played again.
+	 * @param replayed 		The board the replay is played on.
+	 * @param liveFrame 	A frame to copy the first board into.
+	 * @param replayFrame 	A frame to copy the second board into.
+	 * @param where 		Describes the game and move, for the failure message.
+	 */
+	private static void compare(Board live, Board replayed, BoardFrame liveFrame, BoardFrame replayFrame, String where) {
+		live.copyTo(liveFrame);
+		replayed.copyTo(replayFrame);
+		
+		if (!Arrays.equals(liveFrame.cells, replayFrame.cells)) {
+			for (int cell = 0; cell < liveFrame.cells.length; cell++) {
+				if (liveFrame.cells[cell] != replayFrame.cells[cell]) {
+					fail(where + ": tile " + cell / live.dimension() + "," + cell % live.dimension()
+							+ " is " + live.typeOf(cell) + " when played, " + replayed.typeOf(cell) + " when replayed");
+				}
+			}
+		}
+		
+		Snake a = live.snake();
+		Snake b = replayed.snake();
+		if (!a.head.equals(b.head)) fail(where + ": heads at " + a.head + " and " + b.head);
+		if (a.length != b.length) fail(where + ": lengths " + a.length + " and " + b.length);
+		if (a.vacated != b.vacated) fail(where + ": tails left " + a.vacated + " and " + b.vacated);
+		if (a.body.size() != b.body.size()) fail(where + ": bodies of " + a.body.size() + " and " + b.body.size());
+		for (int i = 0; i < a.body.size(); i++) {
+			if (a.body.cell(i) != b.body.cell(i)) fail(where + ": body element " + i + " at " + a.body.cell(i) + " and " + b.body.cell(i));
+		}
+		
+		if (live.apple().placed != replayed.apple().placed) fail(where + ": apple placed on one board only");
+		if (live.apple().placed && !live.apple().location.equals(replayed.apple().location)) {
+			fail(where + ": apples at " + live.apple().location + " and " + replayed.apple().location);
+		}
+	}
+	
+	/**
+	 * Reports a difference between the boards, and exits.
+	 * 
+	 * @param message 	The difference.
+	 */
+	private static void fail(String message) {
+		System.out.println("FAILED: " + message);
+		System.exit(1);
+	}
+}
@@ -0,0 +1,200 @@
+package application;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class SnapshotTest {
+	// The number of rows and columns inside the border of the boards to play on
+	private static final int SIZES[] = { 5, 10, 30 };
+	
+	// The number of seeded games to play on each board size, with each strategy
+	private static final int GAMES = 40;
+	
+	// The most moves played in a game, so a snake going in circles still ends
+	private static final int MAX_TICKS = 20000;
+	
+	// The number of moves between snapshots
+	private static final int SNAPSHOT_EVERY = 7;
+	
+	// The most moves played on a board between taking a snapshot and restoring it
+	private static final int MUTATE_TICKS = 25;
+	
+	/**
+	 * Plays seeded games on two boards side by side. Every few moves one board is
+	 * snapshotted, serialized, played on with other apples and restored,
+	 * then checked against the board that was left alone.
+	 * 
+	 * Only strategies that keep nothing between moves are played,
+	 * since the strategy isn't part of a snapshot.
+	 * 
+	 * Exits with status 1 on the first difference.
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		int games = 0;
+		int restores = 0;
+		for (int size : SIZES) {
+			for (long seed = 0; seed < GAMES; seed++) {
+				restores += play(size, seed, GreedyStrategy::new);
+				restores += play(size, seed, BreadthFirstStrategy::new);
+				restores += play(size, seed, AStarStrategy::new);
+				games += 3;
+			}
+		}
+		System.out.println("Restored snapshots matched the boards left alone over " + games + " games, " + restores + " restores");
+	}
+	
+	/**
+	 * Plays a game on two boards, placing the same apples on both,
+	 * and snapshots and restores one of them every few moves.
+	 * 
+	 * @param size 			The number of rows and columns inside the border.
+	 * @param seed 			The seed for the apple locations.
+	 * @param strategies 	Makes the strategy for each board.
+	 * @return int 			The number of snapshots restored.
+	 */
+	private static int play(int size, long seed, Supplier<? extends MovementStrategy> strategies) {
+		Board restored = new Board(size);
+		restored.setMovementStrategy(strategies.get());
+		
+		Board untouched = new Board(size);
+		untouched.setMovementStrategy(strategies.get());
+		
+		String game = "size=" + size + " seed=" + seed + " strategy=" + restored.movementStrategy().getClass().getSimpleName();
+		// each board picks its own apples, so a free list restored out of order picks differently
+		Random restoredGenerator = new Random(seed);
+		Random untouchedGenerator = new Random(seed);
+		Random mutations = new Random(~seed);
+		BoardFrame restoredFrame = new BoardFrame(restored.dimension());
+		BoardFrame untouchedFrame = new BoardFrame(untouched.dimension());
+		
+		int restores = 0;
+		for (int tick = 0; tick < MAX_TICKS; tick++) {
+			if (tick % SNAPSHOT_EVERY == 0) {
+				roundTrip(restored, mutations, game + " tick " + tick);
+				compare(restored, untouched, restoredFrame, untouchedFrame, game + " restored at tick " + tick);
+				restores++;
+			}
+			
+			if (!untouched.apple().placed) {
+				if (untouched.isFull()) break;
+				
+				int cell = untouched.randomFreeCell(untouchedGenerator);
+				int picked = restored.randomFreeCell(restoredGenerator);
+				if (cell != picked) fail(game + " tick " + tick + ": apples picked at " + cell + " and " + picked);
+				
+				place(untouched, cell);
+				place(restored, cell);
+				compare(restored, untouched, restoredFrame, untouchedFrame, game + " apple at tick " + tick);
+			}
+			
+			if (untouched.snakeIsTrapped()) break;
+			
+			untouched.tick();
+			restored.tick();
+			compare(restored, untouched, restoredFrame, untouchedFrame, game + " tick " + (tick + 1));
+		}
+		return restores;
+	}
+	
+	/**
+	 * Snapshots a board and writes the snapshot to a buffer, plays on the board
+	 * with apples from another generator, then reads the snapshot back and restores it.
+	 * 
+	 * Checks that the snapshot read back is the one written,
+	 * and that the restored board snapshots to the same bytes.
+	 * 
+	 * @param board 		The board to snapshot.
+	 * @param mutations 	Picks how long to play on, and the apples to play on with.
+	 * @param where 		Describes the game and move, for the failure message.
+	 */
+	private static void roundTrip(Board board, Random mutations, String where) {
+		BoardSnapshot snapshot = board.snapshot();
+		ByteBuffer written = ByteBuffer.allocate(snapshot.serializedSize());
+		snapshot.writeTo(written);
+		if (written.hasRemaining()) fail(where + ": snapshot wrote " + written.position() + " of " + snapshot.serializedSize() + " bytes");
+		written.flip();
+		
+		int ticks = mutations.nextInt(MUTATE_TICKS + 1);
+		for (int tick = 0; tick < ticks; tick++) {
+			if (!board.apple().placed) {
+				if (board.isFull()) break;
+				place(board, board.randomFreeCell(mutations));
+			}
+			if (board.snakeIsTrapped()) break;
+			board.tick();
+		}
+		
+		BoardSnapshot read = BoardSnapshot.readFrom(written.duplicate());
+		board.restore(read);
+		
+		ByteBuffer rewritten = ByteBuffer.allocate(board.snapshot().serializedSize());
+		board.snapshot().writeTo(rewritten);
+		rewritten.flip();
+		if (!written.equals(rewritten)) fail(where + ": restored board snapshots differently than before " + ticks + " moves");
+	}
+	
+	/**
+	 * Places the apple on a board.
+	 * 
+	 * @param board 	The board.
+	 * @param cell 		The packed location of the apple.
+	 */
+	private static void place(Board board, int cell) {
+		board.apple().place(cell / board.dimension(), cell % board.dimension());
+		board.update(true);
+	}
+	
+	/**
+	 * Checks that two boards are the same: every tile, including the apple,
+	 * the snake's body and the location its tail left.
+	 * 
+	 * @param restored 			The board snapshotted and restored.
+	 * @param untouched 		The board left alone.
+	 * @param restoredFrame 	A frame to copy the first board into.
+	 * @param untouchedFrame 	A frame to copy the second board into.
+	 * @param where 			Describes the game and move, for the failure message.
+	 */
+	private static void compare(Board restored, Board untouched, BoardFrame restoredFrame, BoardFrame untouchedFrame, String where) {
+		restored.copyTo(restoredFrame);
+		untouched.copyTo(untouchedFrame);
+		
+		if (!Arrays.equals(restoredFrame.cells, untouchedFrame.cells)) {
+			for (int cell = 0; cell < restoredFrame.cells.length; cell++) {
+				if (restoredFrame.cells[cell] != untouchedFrame.cells[cell]) {
+					fail(where + ": tile " + cell / restored.dimension() + "," + cell % restored.dimension()
+							+ " is " + restored.typeOf(cell) + " when restored, " + untouched.typeOf(cell) + " when left alone");
+				}
+			}
+		}
+		
+		Snake a = restored.snake();
+		Snake b = untouched.snake();
+		if (!a.head.equals(b.head)) fail(where + ": heads at " + a.head + " and " + b.head);
+		if (a.length != b.length) fail(where + ": lengths " + a.length + " and " + b.length);
+		if (a.vacated != b.vacated) fail(where + ": tails left " + a.vacated + " and " + b.vacated);
+		if (a.body.size() != b.body.size()) fail(where + ": bodies of " + a.body.size() + " and " + b.body.size());
+		for (int i = 0; i < a.body.size(); i++) {
+			if (a.body.cell(i) != b.body.cell(i)) fail(where + ": body element " + i + " at " + a.body.cell(i) + " and " + b.body.cell(i));
+		}
+		
+		if (restored.apple().placed != untouched.apple().placed) fail(where + ": apple placed on one board only");
+		if (restored.apple().placed && !restored.apple().location.equals(untouched.apple().location)) {
+			fail(where + ": apples at " + restored.apple().location + " and " + untouched.apple().location);
+		}
+		if (restored.isFull() != untouched.isFull()) fail(where + ": only one board is full");
+	}
+	
+	/**
+	 * Reports a difference between the boards, and exits.
+	 * 
+	 * @param message 	The difference.
+	 */
+	private static void fail(String message) {
+		System.out.println("FAILED: " + message);
+		System.exit(1);
+	}
+}
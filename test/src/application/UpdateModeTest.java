@@ -0,0 +1,137 @@
+package application;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import application.Board.UpdateMode;
+
+public class UpdateModeTest {
+	// The number of rows and columns inside the border of the boards to play on
+	private static final int SIZES[] = { 5, 10, 30 };
+	
+	// The number of seeded games to play on each board size, with each strategy
+	private static final int GAMES = 200;
+	
+	// The most moves played in a game, so a snake going in circles still ends
+	private static final int MAX_TICKS = 20000;
+	
+	/**
+	 * Plays seeded games with both update modes side by side,
+	 * and checks that the boards are the same after every move.
+	 * 
+	 * Exits with status 1 on the first difference.
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		int games = 0;
+		long ticks = 0;
+		for (int size : SIZES) {
+			for (long seed = 0; seed < GAMES; seed++) {
+				ticks += play(size, seed, GreedyStrategy::new);
+				ticks += play(size, seed, BreadthFirstStrategy::new);
+				games += 2;
+			}
+		}
+		System.out.println("FULL and INCREMENTAL updates matched over " + games + " games, " + ticks + " moves");
+	}
+	
+	/**
+	 * Plays a game on two boards, one updated in full and one incrementally,
+	 * placing the same apples on both.
+	 * 
+	 * @param size 			The number of rows and columns inside the border.
+	 * @param seed 			The seed for the apple locations.
+	 * @param strategies 	Makes the strategy for each board.
+	 * @return int 			The number of moves played.
+	 */
+	private static int play(int size, long seed, Supplier<? extends MovementStrategy> strategies) {
+		Board full = new Board(size);
+		full.setUpdateMode(UpdateMode.FULL);
+		full.setMovementStrategy(strategies.get());
+		
+		Board incremental = new Board(size);
+		incremental.setUpdateMode(UpdateMode.INCREMENTAL);
+		incremental.setMovementStrategy(strategies.get());
+		
+		String game = "size=" + size + " seed=" + seed + " strategy=" + full.movementStrategy().getClass().getSimpleName();
+		Random generator = new Random(seed);
+		BoardFrame fullFrame = new BoardFrame(full.dimension());
+		BoardFrame incrementalFrame = new BoardFrame(incremental.dimension());
+		
+		int tick = 0;
+		while (tick < MAX_TICKS) {
+			if (!full.apple().placed) {
+				if (full.isFull()) break;
+				
+				int cell = full.randomFreeCell(generator);
+				int row = cell / full.dimension();
+				int column = cell % full.dimension();
+				full.apple().place(row, column);
+				incremental.apple().place(row, column);
+				full.update(true);
+				incremental.update(true);
+				compare(full, incremental, fullFrame, incrementalFrame, game + " apple at tick " + tick);
+			}
+			
+			if (full.snakeIsTrapped()) break;
+			
+			full.tick();
+			incremental.tick();
+			tick++;
+			compare(full, incremental, fullFrame, incrementalFrame, game + " tick " + tick);
+		}
+		return tick;
+	}
+	
+	/**
+	 * Checks that two boards are the same: every tile, including the apple,
+	 * the snake's body and the location its tail left.
+	 * 
+	 * @param full 				The board updated in full.
+	 * @param incremental 		The board updated incrementally.
+	 * @param fullFrame 		A frame to copy the first board into.
+	 * @param incrementalFrame 	A frame to copy the second board into.
+	 * @param where 			Describes the game and move, for the failure message.
+	 */
+	private static void compare(Board full, Board incremental, BoardFrame fullFrame, BoardFrame incrementalFrame, String where) {
+		full.copyTo(fullFrame);
+		incremental.copyTo(incrementalFrame);
+		
+		if (!Arrays.equals(fullFrame.cells, incrementalFrame.cells)) {
+			for (int cell = 0; cell < fullFrame.cells.length; cell++) {
+				if (fullFrame.cells[cell] != incrementalFrame.cells[cell]) {
+					fail(where + ": tile " + cell / full.dimension() + "," + cell % full.dimension()
+							+ " is " + full.typeOf(cell) + " when updated in full, " + incremental.typeOf(cell) + " incrementally");
+				}
+			}
+		}
+		
+		Snake a = full.snake();
+		Snake b = incremental.snake();
+		if (!a.head.equals(b.head)) fail(where + ": heads at " + a.head + " and " + b.head);
+		if (a.length != b.length) fail(where + ": lengths " + a.length + " and " + b.length);
+		if (a.vacated != b.vacated) fail(where + ": tails left " + a.vacated + " and " + b.vacated);
+		if (a.body.size() != b.body.size()) fail(where + ": bodies of " + a.body.size() + " and " + b.body.size());
+		for (int i = 0; i < a.body.size(); i++) {
+			if (a.body.cell(i) != b.body.cell(i)) fail(where + ": body element " + i + " at " + a.body.cell(i) + " and " + b.body.cell(i));
+		}
+		
+		if (full.apple().placed != incremental.apple().placed) fail(where + ": apple placed on one board only");
+		if (full.apple().placed && !full.apple().location.equals(incremental.apple().location)) {
+			fail(where + ": apples at " + full.apple().location + " and " + incremental.apple().location);
+		}
+		if (full.isFull() != incremental.isFull()) fail(where + ": only one board is full");
+	}
+	
+	/**
+	 * Reports a difference between the boards, and exits.
+	 * 
+	 * @param message 	The difference.
+	 */
+	private static void fail(String message) {
+		System.out.println("FAILED: " + message);
+		System.exit(1);
+	}
+}